@@ -14,6 +14,11 @@ public class MonthlyReviewDTO {
 
     private AccountType accountType;
 
+    /**
+     * Counts and totals of the month, read from the monthly summary rather than computed from the operations
+     */
+    private MonthlySummaryDTO summary;
+
     public MonthlyReviewDTO(List<OperationDTO> operations, BigDecimal balance, AccountType accountType) {
         this.operations = operations;
         this.balance = balance;
@@ -43,4 +48,12 @@ public class MonthlyReviewDTO {
     public void setAccountType(AccountType accountType) {
         this.accountType = accountType;
     }
+
+    public MonthlySummaryDTO getSummary() {
+        return summary;
+    }
+
+    public void setSummary(MonthlySummaryDTO summary) {
+        this.summary = summary;
+    }
 }
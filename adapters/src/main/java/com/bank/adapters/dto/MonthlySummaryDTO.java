@@ -0,0 +1,84 @@
+package com.bank.adapters.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * MonthlySummaryDTO : counts and totals of the operations of a month, needed getter and setter to be converted to JSON
+ */
+public class MonthlySummaryDTO {
+
+    private int year;
+    private int month;
+    private long depositCount;
+    private long withdrawalCount;
+    private BigDecimal totalDeposits;
+    private BigDecimal totalWithdrawals;
+    private BigDecimal closingBalance;
+
+    public MonthlySummaryDTO(int year, int month, long depositCount, long withdrawalCount,
+                             BigDecimal totalDeposits, BigDecimal totalWithdrawals, BigDecimal closingBalance) {
+        this.year = year;
+        this.month = month;
+        this.depositCount = depositCount;
+        this.withdrawalCount = withdrawalCount;
+        this.totalDeposits = totalDeposits;
+        this.totalWithdrawals = totalWithdrawals;
+        this.closingBalance = closingBalance;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public long getDepositCount() {
+        return depositCount;
+    }
+
+    public void setDepositCount(long depositCount) {
+        this.depositCount = depositCount;
+    }
+
+    public long getWithdrawalCount() {
+        return withdrawalCount;
+    }
+
+    public void setWithdrawalCount(long withdrawalCount) {
+        this.withdrawalCount = withdrawalCount;
+    }
+
+    public BigDecimal getTotalDeposits() {
+        return totalDeposits;
+    }
+
+    public void setTotalDeposits(BigDecimal totalDeposits) {
+        this.totalDeposits = totalDeposits;
+    }
+
+    public BigDecimal getTotalWithdrawals() {
+        return totalWithdrawals;
+    }
+
+    public void setTotalWithdrawals(BigDecimal totalWithdrawals) {
+        this.totalWithdrawals = totalWithdrawals;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    public void setClosingBalance(BigDecimal closingBalance) {
+        this.closingBalance = closingBalance;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bank.adapters.dto;
+
+import java.util.List;
+
+/**
+ * OperationPageDTO : a page of the operation history, needed getter and setter to be converted to JSON
+ */
+public class OperationPageDTO {
+
+    private List<OperationDTO> operations;
+
+    /**
+     * Opaque cursor of the next page, null on the last page
+     */
+    private String nextCursor;
+
+    public OperationPageDTO(List<OperationDTO> operations, String nextCursor) {
+        this.operations = operations;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OperationDTO> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<OperationDTO> operations) {
+        this.operations = operations;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
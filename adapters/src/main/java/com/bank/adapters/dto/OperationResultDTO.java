@@ -0,0 +1,64 @@
+package com.bank.adapters.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * OperationResultDTO : outcome of one operation of a batch, needed getter and setter to be converted to JSON
+ */
+public class OperationResultDTO {
+
+    public static final String APPLIED = "APPLIED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private BigDecimal balance;
+    private String error;
+
+    public OperationResultDTO(int index, String status, BigDecimal balance, String error) {
+        this.index = index;
+        this.status = status;
+        this.balance = balance;
+        this.error = error;
+    }
+
+    public static OperationResultDTO applied(int index, BigDecimal balance) {
+        return new OperationResultDTO(index, APPLIED, balance, null);
+    }
+
+    public static OperationResultDTO rejected(int index, BigDecimal balance, String error) {
+        return new OperationResultDTO(index, REJECTED, balance, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -1,6 +1,7 @@
 package com.bank.adapters.mappers;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import com.bank.adapters.dto.AccountDTO;
 import com.bank.adapters.dto.OperationDTO;
@@ -49,8 +50,9 @@ public interface BankMapper {
     /**
      * Convert MonthlyReview to MonthlyReviewDTO
      * @param monthlyReview
-     * @return MonthlyReviewDTO
+     * @return MonthlyReviewDTO, without summary (it is read from the monthly summaries)
      */
+    @Mapping(target = "summary", ignore = true)
     MonthlyReviewDTO toMonthlyReviewDTO(MonthlyReview monthlyReview);
 
         /**
@@ -1,18 +1,43 @@
 package com.bank;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.bank.adapters.dto.MonthlyReviewDTO;
+import com.bank.adapters.dto.MonthlySummaryDTO;
 import com.bank.adapters.dto.OperationDTO;
+import com.bank.adapters.dto.OperationPageDTO;
+import com.bank.adapters.dto.OperationResultDTO;
+import com.bank.diagnostics.VirtualThreadPinningMonitor;
+import com.bank.export.OperationExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.bank.infrastructure.cache.HotAccountCache;
+import com.bank.infrastructure.datasource.BoundedDataSource;
 import com.bank.infrastructure.services.AccountServiceDatabase;
 
 import org.slf4j.Logger;
@@ -25,17 +50,32 @@ public class BankController {
     @Autowired
     private AccountServiceDatabase accountServiceDatabase;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<VirtualThreadPinningMonitor> pinningMonitorProvider;
+
+    @Autowired
+    private ObjectProvider<DataSource> dataSourceProvider;
+
+    @Value("${bank.batch.max-operations:50000}")
+    private int maxBatchOperations;
+
+    @Value("${bank.history.max-page-size:500}")
+    private int maxPageSize;
+
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BankController.class);
     /**
      * Get request : searching for account number
      * @return JSON entity with the account number
      */
-    @GetMapping(value = "/accountNumber", headers = "X-API-VERSION=1")
-    public ResponseEntity<Map<String, Object>> getAccountNumber() {
+    @GetMapping(value = "/{accountNumber}/accountNumber", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> getAccountNumber(@PathVariable String accountNumber) {
         LOGGER.info("Account number asked and sent successfully");
         return ResponseEntity.ok(
-            Map.of("Account number", accountServiceDatabase.getAccountNumber())
+            Map.of("Account number", accountServiceDatabase.getAccountNumber(accountNumber))
         );
         
     }
@@ -44,22 +84,100 @@ public class BankController {
      * Get request : searching for the monthly review
      * @return JSON entity with the monthly review
      */
-    @GetMapping(value = "/monthlyReview", headers = "X-API-VERSION=1")
-    public ResponseEntity<MonthlyReviewDTO> getMonthlyReview() {
+    @GetMapping(value = "/{accountNumber}/monthlyReview", headers = "X-API-VERSION=1")
+    public ResponseEntity<MonthlyReviewDTO> getMonthlyReview(@PathVariable String accountNumber) {
         LOGGER.info("Monthly review asked and sent successfully");
-        MonthlyReviewDTO monthlyReviewDTO = accountServiceDatabase.getMonthlyOperations();
+        MonthlyReviewDTO monthlyReviewDTO = accountServiceDatabase.getMonthlyOperations(accountNumber);
         return ResponseEntity.ok(monthlyReviewDTO);
     }
 
+    /**
+     * Get request : searching for the summary of a month (the current month by default)
+     * @return JSON entity with the counts and totals of the month and its closing balance
+     */
+    @GetMapping(value = "/{accountNumber}/monthlySummary", headers = "X-API-VERSION=1")
+    public ResponseEntity<MonthlySummaryDTO> getMonthlySummary(@PathVariable String accountNumber,
+                                                               @RequestParam(required = false) Integer year,
+                                                               @RequestParam(required = false) Integer month) {
+        LocalDate today = LocalDate.now();
+        int summaryYear = year == null ? today.getYear() : year;
+        int summaryMonth = month == null ? today.getMonthValue() : month;
+        if (summaryMonth < 1 || summaryMonth > 12) {
+            return ResponseEntity.badRequest().build();
+        }
+        LOGGER.info("Monthly summary asked and sent successfully");
+        return ResponseEntity.ok(accountServiceDatabase.getMonthlySummary(accountNumber, summaryYear, summaryMonth));
+    }
+
+    /**
+     * Get request : a page of the operation history, most recent first. The next page is asked for
+     * with the cursor returned by the previous one.
+     * @return JSON entity with the operations and the cursor of the next page
+     */
+    @GetMapping(value = "/{accountNumber}/history", headers = "X-API-VERSION=1")
+    public ResponseEntity<OperationPageDTO> getOperationHistory(@PathVariable String accountNumber,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > maxPageSize) {
+            LOGGER.error("History failed due to invalid page size: {}", size);
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            OperationPageDTO page = accountServiceDatabase.getOperationHistory(accountNumber, cursor, size);
+            LOGGER.info("History page of {} operations sent successfully", page.getOperations().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("History failed due to invalid cursor: {}", cursor);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get request : exporting the operations between two dates, oldest first, as NDJSON or CSV.
+     * The operations are written to the response as they are read from the database, so the memory
+     * used does not depend on the number of operations.
+     * @return the operations, one per line
+     */
+    @GetMapping(value = "/{accountNumber}/export", headers = "X-API-VERSION=1")
+    public ResponseEntity<StreamingResponseBody> exportOperations(@PathVariable String accountNumber,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                  @RequestParam(defaultValue = "ndjson") String format) {
+        OperationExportFormat exportFormat;
+        try {
+            exportFormat = OperationExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Export failed due to unknown format: {}", format);
+            return ResponseEntity.badRequest().build();
+        }
+        if (from.isAfter(to)) {
+            LOGGER.error("Export failed due to invalid range: {} to {}", from, to);
+            return ResponseEntity.badRequest().build();
+        }
+        accountServiceDatabase.getAccountNumber(accountNumber);
+
+        StreamingResponseBody body = outputStream -> {
+            try (OperationExportFormat.OperationExportWriter writer = exportFormat.open(outputStream, objectMapper)) {
+                long exported = accountServiceDatabase.exportOperations(accountNumber, from, to, writer);
+                LOGGER.info("Export of {} operations made successfully", exported);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"operations-" + accountNumber + "-" + from + "-" + to
+                    + "." + exportFormat.getExtension() + "\"")
+            .body(body);
+    }
+
     /**
      * Get request : searching for the balance
      * @return JSON entity with the balance
      */
-    @GetMapping(value = "/balance", headers = "X-API-VERSION=1")
-    public ResponseEntity<Map<String, Object>> getBalance() {
+    @GetMapping(value = "/{accountNumber}/balance", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> getBalance(@PathVariable String accountNumber) {
         LOGGER.info("Balance asked and sent successfully");
         return ResponseEntity.ok(
-            Map.of("Balance", accountServiceDatabase.getBalance())
+            Map.of("Balance", accountServiceDatabase.getBalance(accountNumber))
         );
     }
 
@@ -67,27 +185,71 @@ public class BankController {
      * Get request : searching for the authorized overwithdrawal
      * @return JSON entity with the authorized overwithdrawal
      */
-    @GetMapping(value = "/authorizedOverwithdrawal", headers = "X-API-VERSION=1")
-    public ResponseEntity<Map<String, Object>> getAuthorizedOverwithdrawal() {
+    @GetMapping(value = "/{accountNumber}/authorizedOverwithdrawal", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> getAuthorizedOverwithdrawal(@PathVariable String accountNumber) {
         LOGGER.info("Authorized overwithdrawal asked and sent successfully");
         return ResponseEntity.ok(
-            Map.of("Authorized overwithdrawal", accountServiceDatabase.getAuthorizedOverdraw())
+            Map.of("Authorized overwithdrawal", accountServiceDatabase.getAuthorizedOverdraw(accountNumber))
+        );
+    }
+
+
+    /**
+     * Get request : counters of the account cache serving the balance, account number and overdraw reads
+     * @return JSON entity with the cache statistics
+     */
+    @GetMapping(value = "/cacheStatistics", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        HotAccountCache.CacheStatistics statistics = accountServiceDatabase.getCacheStatistics();
+        LOGGER.info("Cache statistics asked and sent successfully");
+        return ResponseEntity.ok(
+            Map.of(
+                "Hits", statistics.hits(),
+                "Misses", statistics.misses(),
+                "Hit ratio", statistics.hitRatio(),
+                "Writes", statistics.writes(),
+                "Evictions", statistics.evictions(),
+                "Size", statistics.size()
+            )
         );
     }
 
+    /**
+     * Get request : the thread mode of the requests, the virtual threads pinned to their carrier and
+     * the database connections in use or waited for (when they are bounded)
+     * @return JSON entity with the thread statistics
+     */
+    @GetMapping(value = "/threadStatistics", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> getThreadStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("Virtual threads", Thread.currentThread().isVirtual());
+        VirtualThreadPinningMonitor pinningMonitor = pinningMonitorProvider.getIfAvailable();
+        if (pinningMonitor != null) {
+            statistics.put("Pinned", pinningMonitor.statistics().count());
+            statistics.put("Pinned time ms", pinningMonitor.statistics().totalMillis());
+        }
+        DataSource dataSource = dataSourceProvider.getIfAvailable();
+        if (dataSource instanceof BoundedDataSource boundedDataSource) {
+            statistics.put("Active connections", boundedDataSource.getActiveConnections());
+            statistics.put("Waiting for a connection", boundedDataSource.getWaitingThreads());
+        }
+        LOGGER.info("Thread statistics asked and sent successfully");
+        return ResponseEntity.ok(statistics);
+    }
+
 
     /**
      * Patch request : Patchting money and updating balance
      * If the date is not specified, it's gonna be filled as today
      * @return JSON entity with the state of the process error/success
      */
-    @PatchMapping(value = "/deposit", headers = "X-API-VERSION=1")
-    public ResponseEntity<Map<String, Object>> deposit(@RequestBody(required = true) OperationDTO operation) {
+    @PatchMapping(value = "/{accountNumber}/deposit", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> deposit(@PathVariable String accountNumber, @RequestBody(required = true) OperationDTO operation) {
 
         BigDecimal balance ;
 
         try {
-            balance = accountServiceDatabase.deposit(operation.getDate(), operation.getAmount());
+            balance = accountServiceDatabase.deposit(accountNumber, operation.getDate(), operation.getAmount());
             LOGGER.info("Deposit of {} made successfully", operation.getAmount());
         } catch (IllegalArgumentException e) {
             LOGGER.error("Deposit failed due to invalid amount: {}", operation.getAmount());
@@ -112,13 +274,13 @@ public class BankController {
      * If the date is not specified, it's gonna be filled as today
      * @return JSON entity with the state of the process error/success
      */
-    @PatchMapping(value = "/withdraw", headers = "X-API-VERSION=1")
-    public ResponseEntity<Map<String, Object>> withdraw(@RequestBody (required = true) OperationDTO operation) {
+    @PatchMapping(value = "/{accountNumber}/withdraw", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> withdraw(@PathVariable String accountNumber, @RequestBody (required = true) OperationDTO operation) {
 
         BigDecimal balance ;
 
         try {
-            balance = accountServiceDatabase.withdraw(operation.getDate(), operation.getAmount(), operation.getLabel());
+            balance = accountServiceDatabase.withdraw(accountNumber, operation.getDate(), operation.getAmount(), operation.getLabel());
             LOGGER.info("Withdrawal of {} made successfully", operation.getAmount());
         } catch (IllegalArgumentException e) {
             LOGGER.error("Withdrawal failed due to invalid amount: {}", operation.getAmount());
@@ -138,15 +300,48 @@ public class BankController {
     }
 
 
+    /**
+     * Patch request : applying a batch of deposits (positive amounts) and withdrawals (negative amounts)
+     * in order, in a single transaction
+     * If the date of an operation is not specified, it's gonna be filled as today
+     * @return JSON entity with the final balance and the result of each operation
+     */
+    @PatchMapping(value = "/{accountNumber}/operations", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> applyOperations(@PathVariable String accountNumber, @RequestBody(required = true) List<OperationDTO> operations) {
+
+        if (operations.isEmpty() || operations.size() > maxBatchOperations) {
+            LOGGER.error("Batch refused, it contains {} operations", operations.size());
+            return ResponseEntity.status(400).body(
+                Map.of(
+                "Error", "A batch must contain between 1 and " + maxBatchOperations + " operations"
+                )
+            );
+        }
+
+        List<OperationResultDTO> results = accountServiceDatabase.applyOperations(accountNumber, operations);
+        long rejected = results.stream().filter(r -> OperationResultDTO.REJECTED.equals(r.getStatus())).count();
+        LOGGER.info("Batch of {} operations made, {} rejected", results.size(), rejected);
+
+        return ResponseEntity.ok(
+            Map.of(
+                "New balance", results.get(results.size() - 1).getBalance(),
+                "Applied", results.size() - rejected,
+                "Rejected", rejected,
+                "Results", results
+            )
+        );
+    }
+
+
     /**
      * Patch request : updating the overwithdrawal limit
      * @return JSON entity with the state of the process error/success
      */
-    @PatchMapping(value = "/authorizedOverwithdrawal", headers = "X-API-VERSION=1")
-    public ResponseEntity<Map<String, Object>> changeAuthorizedWithdrawal(@RequestBody(required = true) BigDecimal amount) {
+    @PatchMapping(value = "/{accountNumber}/authorizedOverwithdrawal", headers = "X-API-VERSION=1")
+    public ResponseEntity<Map<String, Object>> changeAuthorizedWithdrawal(@PathVariable String accountNumber, @RequestBody(required = true) BigDecimal amount) {
 
         try {
-            accountServiceDatabase.setAuthorizedOverdraw(amount);
+            accountServiceDatabase.setAuthorizedOverdraw(accountNumber, amount);
             LOGGER.info("Authorized overwithdrawal updated successfully to {}", amount);
         } catch (IllegalArgumentException e) {
             LOGGER.error("Failed to update authorized overwithdrawal due to invalid amount: {}", amount);
@@ -159,12 +354,38 @@ public class BankController {
         
         return ResponseEntity.ok(
             Map.of(
-                "New authorized overwithdrawal", accountServiceDatabase.getAuthorizedOverdraw(),
+                "New authorized overwithdrawal", accountServiceDatabase.getAuthorizedOverdraw(accountNumber),
                 "Message", "Overwithdrawal updated successfully"
             )    
         );
     }
 
+    /**
+     * Every route is scoped to an account number : an unknown one is answered with a 404
+     * @return JSON entity with the error
+     */
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, Object>> accountNotFound(NoSuchElementException e) {
+        LOGGER.error(e.getMessage());
+        return ResponseEntity.status(404).body(
+            Map.of(
+            "Error", "Account not found"
+            )
+        );
+    }
 
+    /**
+     * The update kept conflicting with concurrent updates of the same account, even after the retries
+     * @return JSON entity with the error
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> accountUpdateConflict(OptimisticLockingFailureException e) {
+        LOGGER.error("Account update abandoned after concurrent updates: {}", e.getMessage());
+        return ResponseEntity.status(409).body(
+            Map.of(
+            "Error", "The account is being updated concurrently, please try again"
+            )
+        );
+    }
 
 }
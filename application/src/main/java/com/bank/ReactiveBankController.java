@@ -0,0 +1,190 @@
+package com.bank;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.bank.adapters.dto.MonthlyReviewDTO;
+import com.bank.adapters.dto.OperationDTO;
+
+import com.bank.infrastructure.services.ReactiveAccountService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Same routes and answers as BankController, served from the reactive repository : the request thread
+ * is released as soon as the Mono is returned and the response is written once the storage answered
+ */
+@RestController
+@RequestMapping("app/v1/bank/reactive/account")
+public class ReactiveBankController {
+
+    @Autowired
+    private ReactiveAccountService reactiveAccountService;
+
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveBankController.class);
+    /**
+     * Get request : searching for account number
+     * @return JSON entity with the account number
+     */
+    @GetMapping(value = "/{accountNumber}/accountNumber", headers = "X-API-VERSION=1")
+    public Mono<ResponseEntity<Map<String, Object>>> getAccountNumber(@PathVariable String accountNumber) {
+        return reactiveAccountService.getAccountNumber(accountNumber)
+            .doOnSuccess(number -> LOGGER.info("Account number asked and sent successfully"))
+            .map(number -> ResponseEntity.ok(Map.<String, Object>of("Account number", number)));
+    }
+
+    /**
+     * Get request : searching for the monthly review
+     * @return JSON entity with the monthly review
+     */
+    @GetMapping(value = "/{accountNumber}/monthlyReview", headers = "X-API-VERSION=1")
+    public Mono<ResponseEntity<MonthlyReviewDTO>> getMonthlyReview(@PathVariable String accountNumber) {
+        return reactiveAccountService.getMonthlyOperations(accountNumber)
+            .doOnSuccess(review -> LOGGER.info("Monthly review asked and sent successfully"))
+            .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Get request : searching for the balance
+     * @return JSON entity with the balance
+     */
+    @GetMapping(value = "/{accountNumber}/balance", headers = "X-API-VERSION=1")
+    public Mono<ResponseEntity<Map<String, Object>>> getBalance(@PathVariable String accountNumber) {
+        return reactiveAccountService.getBalance(accountNumber)
+            .doOnSuccess(balance -> LOGGER.info("Balance asked and sent successfully"))
+            .map(balance -> ResponseEntity.ok(Map.<String, Object>of("Balance", balance)));
+    }
+
+    /**
+     * Get request : searching for the authorized overwithdrawal
+     * @return JSON entity with the authorized overwithdrawal
+     */
+    @GetMapping(value = "/{accountNumber}/authorizedOverwithdrawal", headers = "X-API-VERSION=1")
+    public Mono<ResponseEntity<Map<String, Object>>> getAuthorizedOverwithdrawal(@PathVariable String accountNumber) {
+        return reactiveAccountService.getAuthorizedOverdraw(accountNumber)
+            .doOnSuccess(amount -> LOGGER.info("Authorized overwithdrawal asked and sent successfully"))
+            .map(amount -> ResponseEntity.ok(Map.<String, Object>of("Authorized overwithdrawal", amount)));
+    }
+
+
+    /**
+     * Patch request : Patchting money and updating balance
+     * If the date is not specified, it's gonna be filled as today
+     * @return JSON entity with the state of the process error/success
+     */
+    @PatchMapping(value = "/{accountNumber}/deposit", headers = "X-API-VERSION=1")
+    public Mono<ResponseEntity<Map<String, Object>>> deposit(@PathVariable String accountNumber, @RequestBody(required = true) OperationDTO operation) {
+        return reactiveAccountService.deposit(accountNumber, operation.getDate(), operation.getAmount())
+            .doOnSuccess(balance -> LOGGER.info("Deposit of {} made successfully", operation.getAmount()))
+            .map(balance -> ResponseEntity.ok(
+                Map.<String, Object>of(
+                    "New balance", balance,
+                    "Message", "Deposit made successfully"
+                )
+            ))
+            .onErrorResume(IllegalArgumentException.class, e -> {
+                LOGGER.error("Deposit failed due to invalid amount: {}", operation.getAmount());
+                return Mono.just(ResponseEntity.status(400).body(
+                    Map.of(
+                    "Error", "The amount you entered is either null or negative"
+                    )
+                ));
+            });
+    }
+
+
+    /**
+     * Patch request : withdrawing money and updating balance
+     * If the date is not specified, it's gonna be filled as today
+     * @return JSON entity with the state of the process error/success
+     */
+    @PatchMapping(value = "/{accountNumber}/withdraw", headers = "X-API-VERSION=1")
+    public Mono<ResponseEntity<Map<String, Object>>> withdraw(@PathVariable String accountNumber, @RequestBody (required = true) OperationDTO operation) {
+        return reactiveAccountService.withdraw(accountNumber, operation.getDate(), operation.getAmount(), operation.getLabel())
+            .doOnSuccess(balance -> LOGGER.info("Withdrawal of {} made successfully", operation.getAmount()))
+            .map(balance -> ResponseEntity.ok(
+                Map.<String, Object>of(
+                    "New balance", balance,
+                    "Message", "Withdrawal made successfully"
+                )
+            ))
+            .onErrorResume(IllegalArgumentException.class, e -> {
+                LOGGER.error("Withdrawal failed due to invalid amount: {}", operation.getAmount());
+                return Mono.just(ResponseEntity.status(400).body(
+                    Map.of(
+                    "Error", "The amount you entered is either null, negative, or greater than the actual balance"
+                    )
+                ));
+            });
+    }
+
+
+    /**
+     * Patch request : updating the overwithdrawal limit
+     * @return JSON entity with the state of the process error/success
+     */
+    @PatchMapping(value = "/{accountNumber}/authorizedOverwithdrawal", headers = "X-API-VERSION=1")
+    public Mono<ResponseEntity<Map<String, Object>>> changeAuthorizedWithdrawal(@PathVariable String accountNumber, @RequestBody(required = true) BigDecimal amount) {
+        return reactiveAccountService.setAuthorizedOverdraw(accountNumber, amount)
+            .then(reactiveAccountService.getAuthorizedOverdraw(accountNumber))
+            .doOnSuccess(updated -> LOGGER.info("Authorized overwithdrawal updated successfully to {}", amount))
+            .map(updated -> ResponseEntity.ok(
+                Map.<String, Object>of(
+                    "New authorized overwithdrawal", updated,
+                    "Message", "Overwithdrawal updated successfully"
+                )
+            ))
+            .onErrorResume(IllegalArgumentException.class, e -> {
+                LOGGER.error("Failed to update authorized overwithdrawal due to invalid amount: {}", amount);
+                return Mono.just(ResponseEntity.status(400).body(
+                    Map.of(
+                    "Error", "The amount you entered is negative"
+                    )
+                ));
+            });
+    }
+
+    /**
+     * Every route is scoped to an account number : an unknown one is answered with a 404
+     * @return JSON entity with the error
+     */
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, Object>> accountNotFound(NoSuchElementException e) {
+        LOGGER.error(e.getMessage());
+        return ResponseEntity.status(404).body(
+            Map.of(
+            "Error", "Account not found"
+            )
+        );
+    }
+
+    /**
+     * The update kept conflicting with concurrent updates of the same account, even after the retries
+     * @return JSON entity with the error
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> accountUpdateConflict(OptimisticLockingFailureException e) {
+        LOGGER.error("Account update abandoned after concurrent updates: {}", e.getMessage());
+        return ResponseEntity.status(409).body(
+            Map.of(
+            "Error", "The account is being updated concurrently, please try again"
+            )
+        );
+    }
+
+}
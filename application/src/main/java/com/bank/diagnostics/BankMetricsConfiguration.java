@@ -0,0 +1,76 @@
+package com.bank.diagnostics;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bank.infrastructure.cache.HotAccountCache;
+import com.bank.infrastructure.datasource.BoundedDataSource;
+import com.bank.infrastructure.services.OptimisticRetryExecutor;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics scraped on /actuator/prometheus : the @Timed services and repositories (bank.service and
+ * bank.repository, with histogram buckets), and the counters the statistics routes already expose,
+ * read on each scrape
+ */
+@Configuration
+public class BankMetricsConfiguration {
+
+    /**
+     * Turns the @Timed classes of the infrastructure module into timers
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder hotAccountCacheMetrics(HotAccountCache hotAccountCache) {
+        return registry -> {
+            FunctionCounter.builder("bank.cache.hits", hotAccountCache, cache -> cache.statistics().hits()).register(registry);
+            FunctionCounter.builder("bank.cache.misses", hotAccountCache, cache -> cache.statistics().misses()).register(registry);
+            FunctionCounter.builder("bank.cache.evictions", hotAccountCache, cache -> cache.statistics().evictions()).register(registry);
+            Gauge.builder("bank.cache.size", hotAccountCache, cache -> cache.statistics().size()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder optimisticRetryMetrics(OptimisticRetryExecutor optimisticRetryExecutor) {
+        return registry -> {
+            FunctionCounter.builder("bank.retry.conflicts", optimisticRetryExecutor, executor -> executor.statistics().conflicts()).register(registry);
+            FunctionCounter.builder("bank.retry.retries", optimisticRetryExecutor, executor -> executor.statistics().retries()).register(registry);
+            FunctionCounter.builder("bank.retry.exhausted", optimisticRetryExecutor, executor -> executor.statistics().exhausted()).register(registry);
+        };
+    }
+
+    /**
+     * Only bound when the virtual thread profile runs, and when the database connections are bounded
+     */
+    @Bean
+    public MeterBinder threadMetrics(ObjectProvider<VirtualThreadPinningMonitor> pinningMonitorProvider,
+                                     ObjectProvider<DataSource> dataSourceProvider) {
+        return registry -> {
+            VirtualThreadPinningMonitor pinningMonitor = pinningMonitorProvider.getIfAvailable();
+            if (pinningMonitor != null) {
+                FunctionCounter.builder("bank.threads.pinned", pinningMonitor, monitor -> monitor.statistics().count()).register(registry);
+                TimeGauge.builder("bank.threads.pinned.time", pinningMonitor, TimeUnit.MILLISECONDS,
+                                  monitor -> monitor.statistics().totalMillis()).register(registry);
+            }
+            if (dataSourceProvider.getIfAvailable() instanceof BoundedDataSource boundedDataSource) {
+                Gauge.builder("bank.datasource.active", boundedDataSource, BoundedDataSource::getActiveConnections).register(registry);
+                Gauge.builder("bank.datasource.waiting", boundedDataSource, BoundedDataSource::getWaitingThreads).register(registry);
+            }
+        };
+    }
+}
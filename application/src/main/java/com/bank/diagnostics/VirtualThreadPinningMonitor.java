@@ -0,0 +1,93 @@
+package com.bank.diagnostics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports the virtual threads pinned to their carrier thread (blocking inside a synchronized block or a
+ * native frame), which takes a carrier away from every other virtual thread for the duration.
+ * It listens to the jdk.VirtualThreadPinned JFR event in-process and logs each pinning longer than the
+ * threshold with the frames where it happened.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final int maxFrames;
+    private final LongAdder pinnedCount = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+
+    private volatile RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(@Value("${bank.diagnostics.pinning-threshold-ms:20}") long thresholdMillis,
+                                       @Value("${bank.diagnostics.pinning-max-frames:12}") int maxFrames) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.maxFrames = maxFrames;
+    }
+
+    /**
+     * Pinnings recorded since the start
+     * @param count : number of pinnings longer than the threshold
+     * @param totalMillis : time spent pinned by these pinnings
+     */
+    public record PinningStatistics(long count, long totalMillis) {
+    }
+
+    public PinningStatistics statistics() {
+        return new PinningStatistics(pinnedCount.sum(), Duration.ofNanos(pinnedNanos.sum()).toMillis());
+    }
+
+    @Override
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        LOGGER.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.increment();
+        pinnedNanos.add(event.getDuration().toNanos());
+        String frames = event.getStackTrace() == null ? "no stack trace" : event.getStackTrace().getFrames().stream()
+            .limit(maxFrames)
+            .map(VirtualThreadPinningMonitor::describe)
+            .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        LOGGER.warn("Virtual thread {} pinned to its carrier for {} ms\n{}",
+                    event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                    event.getDuration().toMillis(), frames);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,125 @@
+package com.bank.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.bank.adapters.dto.OperationDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Formats of the statement export : each operation is written as soon as it is read, one per line
+ */
+public enum OperationExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public OperationExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            JsonGenerator generator = objectMapper.copy()
+                .disable(SerializationFeature.INDENT_OUTPUT)
+                .createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+            return new OperationExportWriter() {
+                @Override
+                protected void write(OperationDTO operation) throws IOException {
+                    generator.writeObject(operation);
+                    generator.writeRaw('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    generator.close();
+                }
+            };
+        }
+    },
+
+    CSV("text/csv", "csv") {
+        @Override
+        public OperationExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write("date,amount,label\n");
+            return new OperationExportWriter() {
+                @Override
+                protected void write(OperationDTO operation) throws IOException {
+                    writer.write(String.valueOf(operation.getDate()));
+                    writer.write(',');
+                    writer.write(operation.getAmount() == null ? "" : operation.getAmount().toPlainString());
+                    writer.write(',');
+                    writer.write(escape(operation.getLabel()));
+                    writer.write('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.flush();
+                }
+            };
+        }
+
+        /**
+         * RFC 4180 : a field holding a comma, a quote or a line break is quoted, and its quotes doubled
+         */
+        private static String escape(String field) {
+            if (field == null) {
+                return "";
+            }
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+                return field;
+            }
+            return '"' + field.replace("\"", "\"\"") + '"';
+        }
+    };
+
+    private final String mediaType;
+    private final String extension;
+
+    OperationExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Start writing operations to a stream
+     * @param outputStream : left open once the writer is closed
+     * @param objectMapper
+     * @return the writer
+     */
+    public abstract OperationExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Writer of exported operations, a Consumer so that it can be handed over to the service
+     */
+    public abstract static class OperationExportWriter implements Consumer<OperationDTO>, AutoCloseable {
+
+        protected abstract void write(OperationDTO operation) throws IOException;
+
+        @Override
+        public void accept(OperationDTO operation) {
+            try {
+                write(operation);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public abstract void close() throws IOException;
+    }
+}
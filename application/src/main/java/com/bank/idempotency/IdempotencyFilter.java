@@ -0,0 +1,205 @@
+package com.bank.idempotency;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.bank.infrastructure.cache.StoredResponse;
+import com.bank.infrastructure.services.IdempotencyKeyMismatchException;
+import com.bank.infrastructure.services.IdempotencyService;
+import com.bank.infrastructure.services.IdempotencyService.IdempotentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Deposits, withdrawals and batches sent with an Idempotency-Key header are run once : a retry with the
+ * same key and the same request gets the first response back, with the Idempotent-Replayed header.
+ * The request runs in the transaction reserving the key, so the money movement and the stored response
+ * commit together. Requests without the header are not changed.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private static final Pattern IDEMPOTENT_PATHS = Pattern.compile(".*/app/v1/bank/account/[^/]+/(deposit|withdraw|operations)");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"PATCH".equals(request.getMethod())
+            || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+            || !IDEMPOTENT_PATHS.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, 400, "The idempotency key must contain between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpServletRequest cachedRequest = new CachedBodyRequest(request, body);
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+
+        IdempotentResponse result;
+        try {
+            result = idempotencyService.execute(key, fingerprint(request, body), () -> {
+                try {
+                    filterChain.doFilter(cachedRequest, cachingResponse);
+                } catch (IOException | ServletException e) {
+                    throw new ChainException(e);
+                }
+                return new StoredResponse(null, cachingResponse.getStatus(),
+                                          new String(cachingResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+            });
+        } catch (ChainException e) {
+            if (e.getCause() instanceof ServletException servletException) {
+                throw servletException;
+            }
+            throw (IOException) e.getCause();
+        } catch (IdempotencyKeyMismatchException e) {
+            LOGGER.error("Request refused: {}", e.getMessage());
+            writeError(response, 422, e.getMessage());
+            return;
+        } catch (OptimisticLockingFailureException e) {
+            LOGGER.error("Request refused: {}", e.getMessage());
+            writeError(response, 409, e.getMessage());
+            return;
+        }
+
+        if (!result.replayed()) {
+            cachingResponse.copyBodyToResponse();
+            return;
+        }
+        LOGGER.info("Response of the idempotency key {} replayed", key);
+        response.setStatus(result.response().status());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.getOutputStream().write(result.response().body().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * SHA-256 of the method, the path and the body : a key sent again with another request is refused
+     */
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("Error", message));
+    }
+
+    /**
+     * Request whose body was read once for the fingerprint, and can be read again by the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already in memory : the data is available at once, and all read once consumed
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    if (readListener == null) {
+                        throw new NullPointerException("The read listener can not be null");
+                    }
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Carries the checked exceptions of the filter chain out of the idempotent request
+     */
+    private static final class ChainException extends RuntimeException {
+
+        ChainException(Exception cause) {
+            super(cause);
+        }
+    }
+}
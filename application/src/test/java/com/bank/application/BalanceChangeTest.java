@@ -0,0 +1,39 @@
+package com.bank.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.bank.infrastructure.services.AccountServiceDatabase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+
+@SpringBootTest(classes = com.bank.BankApplication.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BalanceChangeTest {
+
+    private static final String ACCOUNT_NUMBER = "1";
+
+    @Autowired
+    private AccountServiceDatabase accountServiceDatabase;
+
+    @Test
+    @DisplayName("A deposit is accepted on an account beyond its lowered overdraw, a withdrawal is not")
+    void depositBeyondOverdrawTest() {
+        accountServiceDatabase.setAuthorizedOverdraw(ACCOUNT_NUMBER, BigDecimal.valueOf(100));
+        accountServiceDatabase.withdraw(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.valueOf(80), "rent");
+        accountServiceDatabase.setAuthorizedOverdraw(ACCOUNT_NUMBER, BigDecimal.ZERO);
+
+        assertEquals(0, BigDecimal.valueOf(-70).compareTo(accountServiceDatabase.deposit(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.TEN)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> accountServiceDatabase.withdraw(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.ONE, "rent"));
+        assertEquals(0, BigDecimal.valueOf(-70).compareTo(accountServiceDatabase.getBalance(ACCOUNT_NUMBER)));
+    }
+}
@@ -9,15 +9,26 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.bank.BankController;
+import com.bank.adapters.dto.MonthlySummaryDTO;
 import com.bank.adapters.dto.OperationDTO;
+import com.bank.adapters.dto.OperationPageDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -27,34 +38,39 @@ import java.util.Optional;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class BankControllerTest {
 
+    private static final String ACCOUNT_NUMBER = "1";
+
     @Autowired
     private BankController bankController;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     @DisplayName("Getting account number through controller method call")
     void getAccountNumberTestOK() throws Exception {
-        assertNotNull(Objects.requireNonNull(bankController.getAccountNumber().getBody()).get("Account number"));
+        assertNotNull(Objects.requireNonNull(bankController.getAccountNumber(ACCOUNT_NUMBER).getBody()).get("Account number"));
     }
 
 
     @Test
     @DisplayName("Getting balance through controller method call")
     void getBalanceTestOK() throws Exception {
-        assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING), Objects.requireNonNull(bankController.getBalance().getBody()).get("Balance"));
+        assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING), Objects.requireNonNull(bankController.getBalance(ACCOUNT_NUMBER).getBody()).get("Balance"));
     }
 
 
     @Test
     @DisplayName("Getting authorized overwithdrawal through controller method call")
     void getOverWithdrawalTestOK() throws Exception {
-        assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING), Objects.requireNonNull(bankController.getAuthorizedOverwithdrawal().getBody()).get("Authorized overwithdrawal"));
+        assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING), Objects.requireNonNull(bankController.getAuthorizedOverwithdrawal(ACCOUNT_NUMBER).getBody()).get("Authorized overwithdrawal"));
     }
 
     @Test
     @DisplayName("put deposit through controller method call")
     void putDepositTestOK() throws Exception {
         OperationDTO operation = new OperationDTO(LocalDate.now(), BigDecimal.valueOf(20), "cash");
-        BigDecimal balance = (BigDecimal) Objects.requireNonNull(bankController.deposit(operation).getBody()).get("New balance");
+        BigDecimal balance = (BigDecimal) Objects.requireNonNull(bankController.deposit(ACCOUNT_NUMBER, operation).getBody()).get("New balance");
         assertEquals(BigDecimal.valueOf(20).setScale(2, RoundingMode.CEILING), balance);
     }
 
@@ -63,7 +79,7 @@ public class BankControllerTest {
     @DisplayName("put deposit of an incorrect amount through controller method call")
     void putDepositTestKO() throws Exception {
         OperationDTO operation = new OperationDTO(LocalDate.now(), BigDecimal.valueOf(-20), "cash");
-        BigDecimal balance = (BigDecimal) bankController.deposit(operation).getBody().get("New balance");
+        BigDecimal balance = (BigDecimal) bankController.deposit(ACCOUNT_NUMBER, operation).getBody().get("New balance");
         assertNull(balance);
     }
 
@@ -74,11 +90,11 @@ public class BankControllerTest {
     void getWithdrawalTestOK() throws Exception {
         
         OperationDTO operation = new OperationDTO(LocalDate.now(), BigDecimal.valueOf(20), "cash");
-        BigDecimal balance = (BigDecimal) Objects.requireNonNull(bankController.deposit(operation).getBody()).get("New balance");
+        BigDecimal balance = (BigDecimal) Objects.requireNonNull(bankController.deposit(ACCOUNT_NUMBER, operation).getBody()).get("New balance");
         assertEquals(BigDecimal.valueOf(20).setScale(2, RoundingMode.CEILING), balance);
 
         
-        balance = (BigDecimal) Objects.requireNonNull(bankController.withdraw(operation).getBody()).get("New balance");
+        balance = (BigDecimal) Objects.requireNonNull(bankController.withdraw(ACCOUNT_NUMBER, operation).getBody()).get("New balance");
         assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING), balance);
     }
 
@@ -88,15 +104,15 @@ public class BankControllerTest {
     void getWithdrawalTestKO() throws Exception {
         
         OperationDTO operation = new OperationDTO(LocalDate.now(), BigDecimal.valueOf(0), "cash");
-        BigDecimal balance = (BigDecimal) Optional.ofNullable(bankController.withdraw(operation).getBody().get("New balance")).orElse(null);
+        BigDecimal balance = (BigDecimal) Optional.ofNullable(bankController.withdraw(ACCOUNT_NUMBER, operation).getBody().get("New balance")).orElse(null);
         assertNull(balance);
 
         operation = new OperationDTO(LocalDate.now(), BigDecimal.valueOf(-10), "cash");
-        balance = (BigDecimal) Optional.ofNullable(bankController.withdraw(operation).getBody().get("New balance")).orElse(null);
+        balance = (BigDecimal) Optional.ofNullable(bankController.withdraw(ACCOUNT_NUMBER, operation).getBody().get("New balance")).orElse(null);
         assertNull(balance);
 
         operation = new OperationDTO(LocalDate.now(), BigDecimal.valueOf(20), "cash");
-        balance = (BigDecimal) Optional.ofNullable(bankController.withdraw(operation).getBody().get("New balance")).orElse(null);
+        balance = (BigDecimal) Optional.ofNullable(bankController.withdraw(ACCOUNT_NUMBER, operation).getBody().get("New balance")).orElse(null);
         assertNull(balance);
        
     }
@@ -105,28 +121,174 @@ public class BankControllerTest {
     @Test
     @DisplayName("update overwithdrawal through api call OK, and check that the update has been made")
     void putOverwithdrawalTestOK() throws Exception {
-        BigDecimal authorizedOverwithdrawal = (BigDecimal) Objects.requireNonNull(bankController.getAuthorizedOverwithdrawal().getBody()).get("Authorized overwithdrawal");
+        BigDecimal authorizedOverwithdrawal = (BigDecimal) Objects.requireNonNull(bankController.getAuthorizedOverwithdrawal(ACCOUNT_NUMBER).getBody()).get("Authorized overwithdrawal");
         assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING), authorizedOverwithdrawal);
 
-        authorizedOverwithdrawal = (BigDecimal) Objects.requireNonNull(bankController.changeAuthorizedWithdrawal(BigDecimal.valueOf(100)).getBody()).get("New authorized overwithdrawal");
+        authorizedOverwithdrawal = (BigDecimal) Objects.requireNonNull(bankController.changeAuthorizedWithdrawal(ACCOUNT_NUMBER, BigDecimal.valueOf(100)).getBody()).get("New authorized overwithdrawal");
         assertEquals(BigDecimal.valueOf(100).setScale(2, RoundingMode.CEILING), authorizedOverwithdrawal);
 
-        authorizedOverwithdrawal = (BigDecimal) bankController.getAuthorizedOverwithdrawal().getBody().get("Authorized overwithdrawal");
+        authorizedOverwithdrawal = (BigDecimal) bankController.getAuthorizedOverwithdrawal(ACCOUNT_NUMBER).getBody().get("Authorized overwithdrawal");
         assertEquals(BigDecimal.valueOf(100).setScale(2, RoundingMode.CEILING), authorizedOverwithdrawal);
     }
 
+    @SuppressWarnings("null")
+    @Test
+    @DisplayName("Batch of operations through controller method call, the invalid ones are rejected")
+    void applyOperationsTest() throws Exception {
+        List<OperationDTO> operations = List.of(
+            new OperationDTO(LocalDate.now(), BigDecimal.valueOf(100), "Payroll"),
+            new OperationDTO(LocalDate.now(), BigDecimal.valueOf(-30), "Card"),
+            new OperationDTO(LocalDate.now(), BigDecimal.valueOf(-500), "Card"),
+            new OperationDTO(LocalDate.now(), BigDecimal.ZERO, "Card")
+        );
+
+        Map<String, Object> body = bankController.applyOperations(ACCOUNT_NUMBER, operations).getBody();
+        assertEquals(BigDecimal.valueOf(70).setScale(2, RoundingMode.CEILING), body.get("New balance"));
+        assertEquals(2L, body.get("Applied"));
+        assertEquals(2L, body.get("Rejected"));
+
+        BigDecimal balance = (BigDecimal) bankController.getBalance(ACCOUNT_NUMBER).getBody().get("Balance");
+        assertEquals(BigDecimal.valueOf(70).setScale(2, RoundingMode.CEILING), balance);
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    @DisplayName("The monthly summary is updated by every operation and included in the monthly review")
+    void monthlySummaryTest() throws Exception {
+        bankController.deposit(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(100), "cash"));
+        bankController.withdraw(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(30), "Card"));
+        bankController.applyOperations(ACCOUNT_NUMBER, List.of(
+            new OperationDTO(LocalDate.now(), BigDecimal.valueOf(10), "Payroll"),
+            new OperationDTO(LocalDate.now(), BigDecimal.valueOf(-500), "Card")
+        ));
+
+        MonthlySummaryDTO summary = bankController.getMonthlySummary(ACCOUNT_NUMBER, null, null).getBody();
+        assertEquals(2L, summary.getDepositCount());
+        assertEquals(1L, summary.getWithdrawalCount());
+        assertEquals(BigDecimal.valueOf(110).setScale(2, RoundingMode.CEILING), summary.getTotalDeposits());
+        assertEquals(BigDecimal.valueOf(30).setScale(2, RoundingMode.CEILING), summary.getTotalWithdrawals());
+        assertEquals(BigDecimal.valueOf(80).setScale(2, RoundingMode.CEILING), summary.getClosingBalance());
+
+        assertEquals(2L, bankController.getMonthlyReview(ACCOUNT_NUMBER).getBody().getSummary().getDepositCount());
+        assertEquals(0L, bankController.getMonthlySummary(ACCOUNT_NUMBER, 2000, 1).getBody().getDepositCount());
+        assertEquals(400, bankController.getMonthlySummary(ACCOUNT_NUMBER, null, 13).getStatusCode().value());
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    @DisplayName("An operation dated in an earlier month moves the closing balance of that month and not of the later ones")
+    void backDatedClosingBalanceTest() throws Exception {
+        LocalDate today = LocalDate.now();
+        LocalDate lastMonth = today.minusMonths(1);
+        bankController.deposit(ACCOUNT_NUMBER, new OperationDTO(today, BigDecimal.valueOf(100), "cash"));
+        bankController.deposit(ACCOUNT_NUMBER, new OperationDTO(lastMonth, BigDecimal.valueOf(40), "cash"));
+        bankController.withdraw(ACCOUNT_NUMBER, new OperationDTO(lastMonth.withDayOfMonth(1), BigDecimal.valueOf(10), "Card"));
+
+        MonthlySummaryDTO thisMonth = bankController.getMonthlySummary(ACCOUNT_NUMBER, today.getYear(), today.getMonthValue()).getBody();
+        MonthlySummaryDTO previousMonth = bankController.getMonthlySummary(ACCOUNT_NUMBER, lastMonth.getYear(), lastMonth.getMonthValue()).getBody();
+        assertEquals(BigDecimal.valueOf(130).setScale(2, RoundingMode.CEILING), thisMonth.getClosingBalance());
+        assertEquals(BigDecimal.valueOf(30).setScale(2, RoundingMode.CEILING), previousMonth.getClosingBalance());
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    @DisplayName("The operation history is read page by page, most recent first, with the cursor of the previous page")
+    void operationHistoryTest() throws Exception {
+        bankController.applyOperations(ACCOUNT_NUMBER, List.of(
+            new OperationDTO(LocalDate.now().minusDays(3), BigDecimal.valueOf(1), "first"),
+            new OperationDTO(LocalDate.now().minusDays(1), BigDecimal.valueOf(2), "third"),
+            new OperationDTO(LocalDate.now().minusDays(2), BigDecimal.valueOf(3), "second"),
+            new OperationDTO(LocalDate.now().minusDays(1), BigDecimal.valueOf(4), "fourth"),
+            new OperationDTO(LocalDate.now(), BigDecimal.valueOf(5), "fifth")
+        ));
+
+        List<String> labels = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OperationPageDTO page = bankController.getOperationHistory(ACCOUNT_NUMBER, cursor, 2).getBody();
+            page.getOperations().forEach(operation -> labels.add(operation.getLabel()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("fifth", "fourth", "third", "second", "first"), labels);
+        assertEquals(400, bankController.getOperationHistory(ACCOUNT_NUMBER, "not-a-cursor", 2).getStatusCode().value());
+        assertEquals(400, bankController.getOperationHistory(ACCOUNT_NUMBER, null, 0).getStatusCode().value());
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    @DisplayName("Operations of a date range are exported as NDJSON or CSV, oldest first")
+    void exportOperationsTest() throws Exception {
+        bankController.deposit(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(100), "cash"));
+        bankController.withdraw(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now().minusDays(1), BigDecimal.valueOf(30), "Card, \"shop\""));
+        bankController.deposit(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now().minusYears(2), BigDecimal.valueOf(5), "old"));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        bankController.exportOperations(ACCOUNT_NUMBER, LocalDate.now().minusDays(7), LocalDate.now(), "csv").getBody().writeTo(csv);
+        List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(List.of("date,amount,label",
+                             LocalDate.now().minusDays(1) + ",30.00,\"Card, \"\"shop\"\"\"",
+                             LocalDate.now() + ",100.00,Deposit"), lines);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        bankController.exportOperations(ACCOUNT_NUMBER, LocalDate.now().minusYears(3), LocalDate.now(), "ndjson").getBody().writeTo(ndjson);
+        assertEquals(3, ndjson.toString(StandardCharsets.UTF_8).lines().count());
+
+        assertEquals(400, bankController.exportOperations(ACCOUNT_NUMBER, LocalDate.now(), LocalDate.now(), "xml").getStatusCode().value());
+        assertThrows(NoSuchElementException.class,
+            () -> bankController.exportOperations("unknown", LocalDate.now(), LocalDate.now(), "csv"));
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    @DisplayName("Balance reads are served by the cache, and deposits are written through it")
+    void cacheStatisticsTest() throws Exception {
+        bankController.getBalance(ACCOUNT_NUMBER);
+        bankController.getBalance(ACCOUNT_NUMBER);
+        assertEquals(1L, bankController.getCacheStatistics().getBody().get("Misses"));
+        assertEquals(1L, bankController.getCacheStatistics().getBody().get("Hits"));
+
+        bankController.deposit(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(20), "cash"));
+        BigDecimal balance = (BigDecimal) bankController.getBalance(ACCOUNT_NUMBER).getBody().get("Balance");
+        assertEquals(BigDecimal.valueOf(20).setScale(2, RoundingMode.CEILING), balance);
+        assertEquals(2L, bankController.getCacheStatistics().getBody().get("Hits"));
+    }
+
+    @Test
+    @DisplayName("Getting the balance of an unknown account through controller method call")
+    void getBalanceUnknownAccountTestKO() throws Exception {
+        assertThrows(NoSuchElementException.class, () -> bankController.getBalance("unknown"));
+        assertEquals(404, bankController.accountNotFound(new NoSuchElementException()).getStatusCode().value());
+    }
+
     @SuppressWarnings("null")
     @Test
     @DisplayName("update overwithdrawal through api call KO")
     void putOverwithdrawalTestKO() throws Exception {
-        BigDecimal authorizedOverwithdrawal = (BigDecimal) Objects.requireNonNull(bankController.getAuthorizedOverwithdrawal().getBody()).get("Authorized overwithdrawal");
+        BigDecimal authorizedOverwithdrawal = (BigDecimal) Objects.requireNonNull(bankController.getAuthorizedOverwithdrawal(ACCOUNT_NUMBER).getBody()).get("Authorized overwithdrawal");
         assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING), authorizedOverwithdrawal);
 
-        authorizedOverwithdrawal = (BigDecimal) Optional.ofNullable(bankController.changeAuthorizedWithdrawal(BigDecimal.valueOf(-100)).getBody().get("New authorized overwithdrawal")).orElse(null);
+        authorizedOverwithdrawal = (BigDecimal) Optional.ofNullable(bankController.changeAuthorizedWithdrawal(ACCOUNT_NUMBER, BigDecimal.valueOf(-100)).getBody().get("New authorized overwithdrawal")).orElse(null);
         assertNull(authorizedOverwithdrawal);
 
-        authorizedOverwithdrawal = (BigDecimal) bankController.getAuthorizedOverwithdrawal().getBody().get("Authorized overwithdrawal");
+        authorizedOverwithdrawal = (BigDecimal) bankController.getAuthorizedOverwithdrawal(ACCOUNT_NUMBER).getBody().get("Authorized overwithdrawal");
         assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING), authorizedOverwithdrawal);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deposits are timed and rejected withdrawals counted")
+    void operationMetricsTest() throws Exception {
+        bankController.deposit(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(20), "cash"));
+        bankController.withdraw(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(50), "rent"));
+        bankController.withdraw(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(-5), "rent"));
+
+        assertEquals(1, meterRegistry.get("bank.service").tag("method", "deposit").timer().count());
+        assertEquals(2, meterRegistry.get("bank.repository").tag("method", "applyBalanceChange").timer().count());
+        assertEquals(2.0, meterRegistry.get("bank.operations.rejected").tag("operation", "withdrawal").counter().count());
+        assertEquals(0.0, meterRegistry.get("bank.operations.rejected").tag("operation", "deposit").counter().count());
+    }
+}
@@ -0,0 +1,104 @@
+package com.bank.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.bank.BankController;
+import com.bank.adapters.dto.MonthlySummaryDTO;
+import com.bank.adapters.dto.OperationDTO;
+import com.bank.infrastructure.services.AccountServiceDatabase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+@SpringBootTest(classes = com.bank.BankApplication.class,
+                properties = {"bank.group-commit.enabled=true", "bank.group-commit.max-batch-size=32",
+                              "bank.group-commit.max-wait-us=200000"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class GroupCommitTest {
+
+    private static final String ACCOUNT_NUMBER = "1";
+
+    @Autowired
+    private AccountServiceDatabase accountServiceDatabase;
+
+    @Autowired
+    private BankController bankController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Concurrent deposits are committed in groups, none of them is lost")
+    void concurrentDepositsTest() throws Exception {
+        int deposits = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<BigDecimal>> balances = new ArrayList<>();
+            for (int i = 0; i < deposits; i++) {
+                balances.add(executor.submit(() -> accountServiceDatabase.deposit(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.ONE)));
+            }
+            for (Future<BigDecimal> balance : balances) {
+                balance.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, BigDecimal.valueOf(deposits).compareTo(accountServiceDatabase.getBalance(ACCOUNT_NUMBER)));
+        MonthlySummaryDTO summary = accountServiceDatabase.getMonthlySummary(ACCOUNT_NUMBER, LocalDate.now().getYear(), LocalDate.now().getMonthValue());
+        assertEquals(deposits, summary.getDepositCount());
+        assertEquals(deposits, (long) meterRegistry.get("bank.group-commit.size").summary().totalAmount());
+        assertTrue(meterRegistry.get("bank.group-commit.size").summary().count() <= deposits);
+    }
+
+    @Test
+    @DisplayName("An operation refused in a group does not stop the others")
+    void refusedOperationTest() throws Exception {
+        accountServiceDatabase.deposit(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.TEN);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<BigDecimal> refused = executor.submit(() -> {
+                start.await();
+                return accountServiceDatabase.withdraw(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.valueOf(20), "rent");
+            });
+            Future<BigDecimal> accepted = executor.submit(() -> {
+                start.await();
+                return accountServiceDatabase.withdraw(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.valueOf(6), "rent");
+            });
+            start.countDown();
+
+            ExecutionException error = assertThrows(ExecutionException.class, refused::get);
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+            assertEquals(0, BigDecimal.valueOf(4).compareTo(accepted.get()));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(2, meterRegistry.get("bank.group-commit.size").summary().max());
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(accountServiceDatabase.getBalance(ACCOUNT_NUMBER)));
+        MonthlySummaryDTO summary = accountServiceDatabase.getMonthlySummary(ACCOUNT_NUMBER, LocalDate.now().getYear(), LocalDate.now().getMonthValue());
+        assertEquals(1, summary.getWithdrawalCount());
+        assertEquals(400, bankController.withdraw(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(20), "rent")).getStatusCode().value());
+    }
+}
@@ -0,0 +1,101 @@
+package com.bank.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.bank.idempotency.IdempotencyFilter;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@SpringBootTest(classes = com.bank.BankApplication.class)
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class IdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("A deposit retried with the same idempotency key is applied once and its response replayed")
+    void retriedDepositTest() throws Exception {
+        String body = "{ \"amount\" : 20, \"label\" : \"cash\"} ";
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(patch("/app/v1/bank/account/1/deposit")
+                    .header("X-API-VERSION", "1")
+                    .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "deposit-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$['New balance']").value(20));
+        }
+
+        mockMvc.perform(patch("/app/v1/bank/account/1/deposit")
+                .header("X-API-VERSION", "1")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "deposit-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+        mockMvc.perform(get("/app/v1/bank/account/1/balance").header("X-API-VERSION", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['Balance']").value(20));
+    }
+
+    @Test
+    @DisplayName("An idempotency key reused for another request is refused")
+    void reusedKeyTest() throws Exception {
+        mockMvc.perform(patch("/app/v1/bank/account/1/deposit")
+                .header("X-API-VERSION", "1")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "deposit-2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"amount\" : 20, \"label\" : \"cash\"} "))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/app/v1/bank/account/1/deposit")
+                .header("X-API-VERSION", "1")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "deposit-2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"amount\" : 30, \"label\" : \"cash\"} "))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    @DisplayName("A refused withdrawal does not keep its idempotency key")
+    void refusedWithdrawalTest() throws Exception {
+        String body = "{ \"amount\" : 10, \"label\" : \"cash\"} ";
+
+        mockMvc.perform(patch("/app/v1/bank/account/1/withdraw")
+                .header("X-API-VERSION", "1")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "withdraw-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().is(400));
+
+        mockMvc.perform(patch("/app/v1/bank/account/1/deposit")
+                .header("X-API-VERSION", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/app/v1/bank/account/1/withdraw")
+                .header("X-API-VERSION", "1")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "withdraw-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andExpect(jsonPath("$['New balance']").value(0));
+    }
+}
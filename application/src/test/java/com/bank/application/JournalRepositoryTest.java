@@ -0,0 +1,179 @@
+package com.bank.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.domain.Operation;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
+import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.repositories.InfrastructureRepository;
+import com.bank.infrastructure.repositories.ReactiveInfrastructureRepository;
+import com.bank.infrastructure.repositories.journal.JournalReactiveInfrastructureRepository;
+import com.bank.infrastructure.repositories.journal.JournalInfrastructureRepository;
+import com.bank.infrastructure.repositories.journal.JournalSnapshotStore;
+import com.bank.infrastructure.repositories.journal.OperationJournal;
+import com.bank.infrastructure.services.AccountServiceDatabase;
+import com.bank.infrastructure.services.ReactiveAccountService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+
+@SpringBootTest(classes = com.bank.BankApplication.class)
+@ActiveProfiles("journal")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class JournalRepositoryTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("bank.journal.path", () -> journalDirectory.resolve("bank.journal").toString());
+    }
+
+    @Autowired
+    private InfrastructureRepository infrastructureRepository;
+
+    @Autowired
+    private AccountServiceDatabase accountService;
+
+    @Autowired
+    private OperationJournal journal;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReactiveInfrastructureRepository reactiveInfrastructureRepository;
+
+    @Autowired
+    private ReactiveAccountService reactiveAccountService;
+
+    @Test
+    @DisplayName("The journal profile replaces the database adapter")
+    void journalAdapterIsUsedTest() {
+        assertInstanceOf(JournalInfrastructureRepository.class, infrastructureRepository);
+    }
+
+    @Test
+    @DisplayName("Deposits and withdrawals are applied and read back from the journal")
+    void depositAndWithdrawTest() {
+        BigDecimal balance = accountService.getBalance("1");
+        int operations = accountService.getMonthlyOperations("1").getOperations().size();
+
+        accountService.deposit("1", LocalDate.now(), new BigDecimal("100.00"));
+        accountService.withdraw("1", LocalDate.now(), new BigDecimal("40.00"), "Groceries");
+
+        assertEquals(balance.add(new BigDecimal("60.00")), accountService.getBalance("1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> accountService.withdraw("1", LocalDate.now(), new BigDecimal("1000000.00"), "Too much"));
+        assertEquals(operations + 2, accountService.getMonthlyOperations("1").getOperations().size());
+    }
+
+    @Test
+    @DisplayName("Replaying the journal rebuilds the accounts and the operations")
+    void replayTest() throws Exception {
+        accountService.deposit("1", LocalDate.now(), new BigDecimal("10.00"));
+        LocalDate today = LocalDate.now();
+        List<OperationEntity> operations = infrastructureRepository.findOperationsByMonthAndYear("1", today.getMonthValue(), today.getYear());
+
+        JournalInfrastructureRepository replayed = new JournalInfrastructureRepository(journal,
+            new JournalSnapshotStore(journalDirectory.resolve("none.snapshot")));
+
+        assertEquals(infrastructureRepository.findAccount("1").orElseThrow().toDomain().getBalance(),
+                     replayed.findAccount("1").orElseThrow().toDomain().getBalance());
+        assertEquals(operations.size(), replayed.findOperationsByMonthAndYear("1", today.getMonthValue(), today.getYear()).size());
+        assertEquals(infrastructureRepository.findMonthlySummary("1", today.getMonthValue(), today.getYear()).orElseThrow().getDepositCount(),
+                     replayed.findMonthlySummary("1", today.getMonthValue(), today.getYear()).orElseThrow().getDepositCount());
+    }
+
+    @Test
+    @DisplayName("A restart loads the snapshot and only replays the records appended after it")
+    void snapshotRecoveryTest() throws Exception {
+        JournalSnapshotStore snapshotStore = new JournalSnapshotStore(journalDirectory.resolve("recovery.snapshot"));
+        JournalInfrastructureRepository repository = new JournalInfrastructureRepository(journal, snapshotStore);
+        repository.snapshot();
+
+        repository.applyBalanceChange("1", new BigDecimal("5.00"));
+        repository.saveOperation("1", new OperationEntity().fromDomain(new Operation(LocalDate.now(), new BigDecimal("5.00"), "Deposit")));
+
+        JournalInfrastructureRepository restarted = new JournalInfrastructureRepository(journal, snapshotStore);
+
+        assertEquals(2, restarted.getRecoveryStatistics().replayedRecords());
+        assertEquals(repository.findAccount("1").orElseThrow().toDomain().getBalance(),
+                     restarted.findAccount("1").orElseThrow().toDomain().getBalance());
+        LocalDate today = LocalDate.now();
+        assertEquals(repository.findOperationsByMonthAndYear("1", today.getMonthValue(), today.getYear()).size(),
+                     restarted.findOperationsByMonthAndYear("1", today.getMonthValue(), today.getYear()).size());
+    }
+
+    @Test
+    @DisplayName("A restart rebuilds the monthly summaries, from the journal alone and from a snapshot")
+    void summaryRestartTest() throws Exception {
+        accountService.deposit("1", LocalDate.now(), new BigDecimal("30.00"));
+        accountService.withdraw("1", LocalDate.now(), new BigDecimal("5.00"), "Groceries");
+        LocalDate today = LocalDate.now();
+        MonthlySummaryEntity expected = infrastructureRepository.findMonthlySummary("1", today.getMonthValue(), today.getYear()).orElseThrow();
+
+        JournalSnapshotStore snapshotStore = new JournalSnapshotStore(journalDirectory.resolve("summary.snapshot"));
+        JournalInfrastructureRepository replayed = new JournalInfrastructureRepository(journal, snapshotStore);
+        replayed.snapshot();
+        JournalInfrastructureRepository restarted = new JournalInfrastructureRepository(journal, snapshotStore);
+
+        for (JournalInfrastructureRepository repository : List.of(replayed, restarted)) {
+            MonthlySummaryEntity summary = repository.findMonthlySummary("1", today.getMonthValue(), today.getYear()).orElseThrow();
+            assertEquals(expected.getDepositCount(), summary.getDepositCount());
+            assertEquals(expected.getWithdrawalCount(), summary.getWithdrawalCount());
+            assertEquals(0, expected.getTotalDeposits().compareTo(summary.getTotalDeposits()));
+            assertEquals(0, expected.getTotalWithdrawals().compareTo(summary.getTotalWithdrawals()));
+            assertEquals(0, expected.getClosingBalance().compareTo(summary.getClosingBalance()));
+        }
+        assertEquals(0, restarted.getRecoveryStatistics().replayedRecords());
+    }
+
+    @Test
+    @DisplayName("A rolled back transaction restores the account and appends nothing to the journal")
+    void rollbackTest() throws Exception {
+        BigDecimal balance = infrastructureRepository.findAccount("1").orElseThrow().toDomain().getBalance();
+        long position = journal.position();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            infrastructureRepository.applyBalanceChange("1", new BigDecimal("7.00"));
+            infrastructureRepository.saveOperation("1", new OperationEntity().fromDomain(new Operation(LocalDate.now(), new BigDecimal("7.00"), "Deposit")));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(position, journal.position());
+        assertEquals(balance, infrastructureRepository.findAccount("1").orElseThrow().toDomain().getBalance());
+        JournalInfrastructureRepository replayed = new JournalInfrastructureRepository(journal,
+            new JournalSnapshotStore(journalDirectory.resolve("rollback.snapshot")));
+        assertEquals(balance, replayed.findAccount("1").orElseThrow().toDomain().getBalance());
+    }
+
+    @Test
+    @DisplayName("The reactive API writes to the same journal ledger as the blocking API")
+    void reactiveSharesTheJournalTest() {
+        assertInstanceOf(JournalReactiveInfrastructureRepository.class, reactiveInfrastructureRepository);
+        BigDecimal balance = accountService.getBalance("1");
+
+        reactiveAccountService.deposit("1", LocalDate.now(), new BigDecimal("12.00")).block();
+
+        assertEquals(balance.add(new BigDecimal("12.00")), accountService.getBalance("1"));
+        assertEquals(accountService.getBalance("1"), reactiveAccountService.getBalance("1").block());
+    }
+}
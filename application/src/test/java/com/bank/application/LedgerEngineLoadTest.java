@@ -0,0 +1,118 @@
+package com.bank.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bank.BankApplication;
+import com.bank.infrastructure.services.AccountServiceDatabase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Same deposits and withdrawals on one hot account through the account service, with the JPA path (one
+ * transaction per operation on a locked row), then with the ledger engine (single writer per partition,
+ * one transaction per batch). Run with 'mvn -pl application test -Pload-test'.
+ */
+@Tag("load")
+public class LedgerEngineLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerEngineLoadTest.class);
+
+    private static final String ACCOUNT_NUMBER = "1";
+    private static final int THREADS = 64;
+    private static final int OPERATIONS_PER_THREAD = 200;
+    private static final BigDecimal DEPOSIT = new BigDecimal("2.00");
+    private static final BigDecimal WITHDRAWAL = new BigDecimal("1.00");
+
+    private record LoadResult(String engine, int operations, int errors, double throughput, double p50Millis, double p99Millis,
+                              BigDecimal balance) {
+        @Override
+        public String toString() {
+            return String.format("%-7s %7d operations %5d errors %10.1f op/s   p50 %8.2f ms   p99 %8.2f ms",
+                                 engine, operations, errors, throughput, p50Millis, p99Millis);
+        }
+    }
+
+    @Test
+    @DisplayName("Throughput and p99 latency of the JPA path against the ledger engine on a hot account")
+    void compareEnginesTest() throws Exception {
+        LoadResult jpa = run("jpa", new String[] {"--server.port=0"});
+        LoadResult ledger = run("ledger", new String[] {"--server.port=0", "--bank.ledger.enabled=true"});
+
+        LOGGER.info("Hot account comparison, {} threads\n{}\n{}", THREADS, jpa, ledger);
+
+        BigDecimal expected = DEPOSIT.add(WITHDRAWAL.negate()).multiply(BigDecimal.valueOf(THREADS * OPERATIONS_PER_THREAD / 2));
+        for (LoadResult result : List.of(jpa, ledger)) {
+            assertEquals(THREADS * OPERATIONS_PER_THREAD, result.operations());
+            assertEquals(0, result.errors());
+            assertEquals(0, expected.compareTo(result.balance()));
+            assertTrue(result.throughput() > 0);
+            assertTrue(result.p50Millis() <= result.p99Millis());
+        }
+    }
+
+    private LoadResult run(String engine, String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankApplication.class).run(args)) {
+            AccountServiceDatabase accountService = context.getBean(AccountServiceDatabase.class);
+            LocalDate today = LocalDate.now();
+
+            AtomicInteger errors = new AtomicInteger();
+            long[] latencies = new long[THREADS * OPERATIONS_PER_THREAD];
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+                List<Future<?>> futures = new ArrayList<>(THREADS);
+                for (int t = 0; t < THREADS; t++) {
+                    int offset = t * OPERATIONS_PER_THREAD;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                            long operationStart = System.nanoTime();
+                            try {
+                                // each deposit comes before the withdrawal it covers, so no withdrawal is refused
+                                if (i % 2 == 0) {
+                                    accountService.deposit(ACCOUNT_NUMBER, today, DEPOSIT);
+                                } else {
+                                    accountService.withdraw(ACCOUNT_NUMBER, today, WITHDRAWAL, "load");
+                                }
+                            } catch (RuntimeException e) {
+                                errors.incrementAndGet();
+                            }
+                            latencies[offset + i] = System.nanoTime() - operationStart;
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            return new LoadResult(engine, latencies.length, errors.get(), latencies.length / seconds,
+                                  percentile(latencies, 0.50), percentile(latencies, 0.99),
+                                  accountService.getBalance(ACCOUNT_NUMBER));
+        }
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+}
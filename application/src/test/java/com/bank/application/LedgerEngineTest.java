@@ -0,0 +1,202 @@
+package com.bank.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.bank.domain.Account;
+import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.ledger.LedgerEngine;
+import com.bank.infrastructure.ledger.RingBuffer;
+import com.bank.infrastructure.repositories.InfrastructureRepository;
+import com.bank.infrastructure.services.AccountServiceDatabase;
+import com.bank.infrastructure.services.ReactiveAccountService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+@SpringBootTest(classes = com.bank.BankApplication.class,
+                properties = {"bank.ledger.enabled=true", "bank.ledger.accounts=1,2", "bank.ledger.partitions=2",
+                              "bank.ledger.ring-size=8"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class LedgerEngineTest {
+
+    private static final String ACCOUNT_NUMBER = "1";
+    private static final String OTHER_ACCOUNT_NUMBER = "2";
+
+    @Autowired
+    private AccountServiceDatabase accountServiceDatabase;
+
+    @Autowired
+    private LedgerEngine ledgerEngine;
+
+    @Autowired
+    private InfrastructureRepository infrastructureRepository;
+
+    @Autowired
+    private ReactiveAccountService reactiveAccountService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("The ledger engine applies the domain rules and sees the changes made without it")
+    void rulesAndOutsideChangesTest() throws Exception {
+        accountServiceDatabase.deposit(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.TEN);
+        assertThrows(IllegalArgumentException.class,
+                     () -> accountServiceDatabase.withdraw(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.valueOf(20), "rent"));
+        assertThrows(NoSuchElementException.class,
+                     () -> accountServiceDatabase.deposit("unknown", LocalDate.now(), BigDecimal.TEN));
+
+        accountServiceDatabase.setAuthorizedOverdraw(ACCOUNT_NUMBER, BigDecimal.TEN);
+        assertTrue(ledgerEngine.snapshot(ACCOUNT_NUMBER).isEmpty());
+        assertEquals(0, BigDecimal.valueOf(-10).compareTo(accountServiceDatabase.withdraw(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.valueOf(20), "rent")));
+    }
+
+    @Test
+    @DisplayName("A reactive write drops the account from the engine, and its refusals are counted")
+    void reactiveWriteTest() {
+        accountServiceDatabase.deposit(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.TEN);
+        assertTrue(ledgerEngine.snapshot(ACCOUNT_NUMBER).isPresent());
+
+        reactiveAccountService.deposit(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.ONE).block();
+
+        assertTrue(ledgerEngine.snapshot(ACCOUNT_NUMBER).isEmpty());
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(accountServiceDatabase.getBalance(ACCOUNT_NUMBER)));
+
+        double rejected = meterRegistry.get("bank.operations.rejected").tag("operation", "withdrawal").counter().count();
+        assertThrows(IllegalArgumentException.class,
+                     () -> reactiveAccountService.withdraw(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.valueOf(100), "rent").block());
+        assertEquals(rejected + 1, meterRegistry.get("bank.operations.rejected").tag("operation", "withdrawal").counter().count());
+    }
+
+    @Test
+    @DisplayName("A full ring holds the producers back until the consumer releases a slot, then reuses it")
+    void ringBackPressureTest() throws Exception {
+        RingBuffer<AtomicLong> ring = new RingBuffer<>(4, AtomicLong::new);
+        for (long sequence = 0; sequence < 4; sequence++) {
+            ring.get(ring.next()).set(sequence);
+            ring.publish(sequence);
+        }
+
+        CompletableFuture<Long> blocked = CompletableFuture.supplyAsync(ring::next);
+        assertThrows(TimeoutException.class, () -> blocked.get(100, TimeUnit.MILLISECONDS));
+        assertEquals(3, ring.waitFor(0, 8));
+
+        ring.release(0);
+        long wrapped = blocked.get(5, TimeUnit.SECONDS);
+        assertEquals(4, wrapped);
+        assertSame(ring.get(0), ring.get(wrapped));
+    }
+
+    @Test
+    @DisplayName("The accounts of different partitions are written concurrently, each with its own state")
+    void partitionRoutingTest() throws Exception {
+        infrastructureRepository.save(new AccountEntity().fromDomain(new Account(OTHER_ACCOUNT_NUMBER)));
+        assertTrue(ledgerEngine.owns(ACCOUNT_NUMBER));
+        assertTrue(ledgerEngine.owns(OTHER_ACCOUNT_NUMBER));
+        assertFalse(ledgerEngine.owns("3"));
+
+        int deposits = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<BigDecimal>> results = new ArrayList<>();
+            for (int i = 0; i < deposits; i++) {
+                BigDecimal amount = BigDecimal.valueOf(i % 2 + 1);
+                String accountNumber = i % 2 == 0 ? ACCOUNT_NUMBER : OTHER_ACCOUNT_NUMBER;
+                results.add(executor.submit(() -> accountServiceDatabase.deposit(accountNumber, LocalDate.now(), amount)));
+            }
+            for (Future<BigDecimal> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, BigDecimal.valueOf(deposits / 2).compareTo(ledgerEngine.snapshot(ACCOUNT_NUMBER).orElseThrow().balance()));
+        assertEquals(0, BigDecimal.valueOf(deposits).compareTo(ledgerEngine.snapshot(OTHER_ACCOUNT_NUMBER).orElseThrow().balance()));
+        assertEquals(0, BigDecimal.valueOf(deposits / 2).compareTo(accountServiceDatabase.getBalance(ACCOUNT_NUMBER)));
+        assertEquals(0, BigDecimal.valueOf(deposits).compareTo(accountServiceDatabase.getBalance(OTHER_ACCOUNT_NUMBER)));
+    }
+
+    @Test
+    @DisplayName("Refused withdrawals of a batch fail alone, the accepted ones are committed")
+    void refusedOperationsInBatchTest() throws Exception {
+        accountServiceDatabase.deposit(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.TEN);
+
+        int withdrawals = 40;
+        int refused = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<BigDecimal>> results = new ArrayList<>();
+            for (int i = 0; i < withdrawals; i++) {
+                results.add(executor.submit(() -> ledgerEngine.withdraw(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.ONE, "Card")));
+            }
+            for (Future<BigDecimal> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                    refused++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(withdrawals - 10, refused);
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountServiceDatabase.getBalance(ACCOUNT_NUMBER)));
+        assertEquals(10, accountServiceDatabase.getMonthlySummary(ACCOUNT_NUMBER, LocalDate.now().getYear(), LocalDate.now().getMonthValue()).getWithdrawalCount());
+    }
+
+    @Test
+    @DisplayName("Closing the engine with events in flight completes every caller, and commits only what succeeded")
+    void closeWithEventsInFlightTest() throws Exception {
+        int deposits = 2000;
+        int committed = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<BigDecimal>> results = new ArrayList<>();
+            for (int i = 0; i < deposits; i++) {
+                results.add(executor.submit(() -> ledgerEngine.deposit(ACCOUNT_NUMBER, LocalDate.now(), BigDecimal.ONE)));
+            }
+            ledgerEngine.close();
+            for (Future<BigDecimal> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                    committed++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertFalse(ledgerEngine.owns(ACCOUNT_NUMBER));
+        assertEquals(0, BigDecimal.valueOf(committed).compareTo(accountServiceDatabase.getBalance(ACCOUNT_NUMBER)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.bank.application;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.domain.Operation;
+import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.repositories.InfrastructureRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+
+@SpringBootTest(classes = com.bank.BankApplication.class,
+                properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class OperationBatchInsertTest {
+
+    private static final int OPERATIONS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private InfrastructureRepository infrastructureRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Writing 1000 operations costs one nextval and one JDBC batch per 50 operations")
+    void saveOperationsIsBatchedTest() {
+        List<OperationEntity> operations = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            operations.add(new OperationEntity().fromDomain(new Operation(LocalDate.now(), BigDecimal.ONE, "Deposit")));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> infrastructureRepository.saveOperations("1", operations));
+
+        assertEquals(OPERATIONS, statistics.getEntityInsertCount());
+
+        long statements = statistics.getPrepareStatementCount();
+        long expected = 2L * OPERATIONS / BATCH_SIZE;
+        assertTrue(statements <= expected + 2,
+            "Expected about " + expected + " statements (sequence + insert batches) but got " + statements);
+    }
+}
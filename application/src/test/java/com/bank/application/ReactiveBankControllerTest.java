@@ -0,0 +1,97 @@
+package com.bank.application;
+
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.bank.ReactiveBankController;
+import com.bank.adapters.dto.MonthlyReviewDTO;
+import com.bank.adapters.dto.OperationDTO;
+import com.bank.infrastructure.repositories.ReactiveInfrastructureRepository;
+import com.bank.infrastructure.repositories.reactive.InMemoryReactiveInfrastructureRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+
+@SpringBootTest(classes = com.bank.BankApplication.class, properties = "bank.reactive.repository=in-memory")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ReactiveBankControllerTest {
+
+    private static final String ACCOUNT_NUMBER = "1";
+
+    @Autowired
+    private ReactiveBankController reactiveBankController;
+
+    @Autowired
+    private ReactiveInfrastructureRepository reactiveInfrastructureRepository;
+
+    @Test
+    @DisplayName("The reactive API runs on the in-memory adapter when asked to")
+    void inMemoryAdapterTest() {
+        assertInstanceOf(InMemoryReactiveInfrastructureRepository.class, reactiveInfrastructureRepository);
+    }
+
+    @Test
+    @DisplayName("Deposit then withdrawal through the reactive controller")
+    void depositAndWithdrawTestOK() {
+        reactiveBankController.deposit(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(50), "cash")).block();
+        BigDecimal balance = (BigDecimal) Objects.requireNonNull(reactiveBankController
+            .withdraw(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(20), "rent")).block().getBody())
+            .get("New balance");
+        assertEquals(BigDecimal.valueOf(30).setScale(2, RoundingMode.CEILING), balance);
+
+        MonthlyReviewDTO review = reactiveBankController.getMonthlyReview(ACCOUNT_NUMBER).block().getBody();
+        assertEquals(2, Objects.requireNonNull(review).getOperations().size());
+    }
+
+    @Test
+    @DisplayName("A withdrawal above the balance is answered with a 400")
+    void withdrawTestKO() {
+        int status = reactiveBankController
+            .withdraw(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(20), "rent")).block()
+            .getStatusCode().value();
+        assertEquals(400, status);
+        assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.CEILING),
+                     reactiveBankController.getBalance(ACCOUNT_NUMBER).block().getBody().get("Balance"));
+    }
+
+    @Test
+    @DisplayName("Updating the authorized overwithdrawal through the reactive controller")
+    void changeAuthorizedWithdrawalTestOK() {
+        reactiveBankController.changeAuthorizedWithdrawal(ACCOUNT_NUMBER, BigDecimal.valueOf(100)).block();
+        assertEquals(0, BigDecimal.valueOf(100).compareTo((BigDecimal) reactiveBankController
+            .getAuthorizedOverwithdrawal(ACCOUNT_NUMBER).block().getBody().get("Authorized overwithdrawal")));
+        assertEquals(400, reactiveBankController.changeAuthorizedWithdrawal(ACCOUNT_NUMBER, BigDecimal.valueOf(-1)).block()
+            .getStatusCode().value());
+    }
+
+    @Test
+    @DisplayName("A deposit is accepted on an account beyond its lowered overdraw")
+    void depositBeyondOverdrawTestOK() {
+        reactiveBankController.changeAuthorizedWithdrawal(ACCOUNT_NUMBER, BigDecimal.valueOf(100)).block();
+        reactiveBankController.withdraw(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.valueOf(80), "rent")).block();
+        reactiveBankController.changeAuthorizedWithdrawal(ACCOUNT_NUMBER, BigDecimal.ZERO).block();
+
+        BigDecimal balance = (BigDecimal) Objects.requireNonNull(reactiveBankController
+            .deposit(ACCOUNT_NUMBER, new OperationDTO(LocalDate.now(), BigDecimal.TEN, "cash")).block().getBody())
+            .get("New balance");
+        assertEquals(0, BigDecimal.valueOf(-70).compareTo(balance));
+    }
+
+    @Test
+    @DisplayName("An unknown account is published as a NoSuchElementException")
+    void unknownAccountTestKO() {
+        assertThrows(NoSuchElementException.class, () -> reactiveBankController.getBalance("unknown").block());
+    }
+}
@@ -0,0 +1,137 @@
+package com.bank.application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bank.BankApplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Same load against the application started with platform threads, then with virtual threads (virtual profile) :
+ * many concurrent clients reading balances and making deposits, each request blocking on JDBC.
+ * Run with 'mvn -pl application test -Pload-test'.
+ */
+@Tag("load")
+public class ThreadModeLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadModeLoadTest.class);
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final int WARMUP_REQUESTS_PER_CLIENT = 10;
+
+    private record LoadResult(String mode, int requests, int errors, double throughput, double p50Millis, double p99Millis) {
+        @Override
+        public String toString() {
+            return String.format("%-9s %7d requests %5d errors %10.1f req/s   p50 %8.2f ms   p99 %8.2f ms",
+                                 mode, requests, errors, throughput, p50Millis, p99Millis);
+        }
+    }
+
+    @Test
+    @DisplayName("Throughput and p99 latency of platform threads against virtual threads")
+    void compareThreadModesTest() throws Exception {
+        LoadResult platform = run("platform", new String[] {"--server.port=0"});
+        LoadResult virtual = run("virtual", new String[] {"--server.port=0", "--spring.profiles.active=virtual"});
+
+        LOGGER.info("Thread mode comparison, {} concurrent clients\n{}\n{}", CLIENTS, platform, virtual);
+
+        for (LoadResult result : List.of(platform, virtual)) {
+            assertEquals(CLIENTS * REQUESTS_PER_CLIENT, result.requests());
+            assertEquals(0, result.errors());
+            assertTrue(result.throughput() > 0);
+            assertTrue(result.p50Millis() <= result.p99Millis());
+        }
+    }
+
+    private LoadResult run(String mode, String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankApplication.class).run(args)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                           + "/app/v1/bank/account/1/";
+            HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+            load(client, baseUrl, WARMUP_REQUESTS_PER_CLIENT, new AtomicInteger());
+
+            AtomicInteger errors = new AtomicInteger();
+            long start = System.nanoTime();
+            long[] latencies = load(client, baseUrl, REQUESTS_PER_CLIENT, errors);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            return new LoadResult(mode, latencies.length, errors.get(), latencies.length / seconds,
+                                  percentile(latencies, 0.50), percentile(latencies, 0.99));
+        }
+    }
+
+    /**
+     * Every client alternates balance reads and deposits, one request at a time
+     * @return the latency of each request, in nanoseconds
+     */
+    private long[] load(HttpClient client, String baseUrl, int requestsPerClient, AtomicInteger errors) throws Exception {
+        HttpRequest balance = HttpRequest.newBuilder(URI.create(baseUrl + "balance"))
+            .header("X-API-VERSION", "1")
+            .GET()
+            .build();
+        HttpRequest deposit = HttpRequest.newBuilder(URI.create(baseUrl + "deposit"))
+            .header("X-API-VERSION", "1")
+            .header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"amount\": 1.00, \"label\": \"load\"}"))
+            .build();
+
+        long[] latencies = new long[CLIENTS * requestsPerClient];
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                int offset = c * requestsPerClient;
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(r % 2 == 0 ? balance : deposit, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[offset + r] = System.nanoTime() - start;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return latencies;
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+}
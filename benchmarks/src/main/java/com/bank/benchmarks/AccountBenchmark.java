@@ -0,0 +1,98 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.domain.Account;
+import com.bank.domain.Money;
+import com.bank.domain.SavingAccount;
+
+/**
+ * Deposit and withdrawal on the domain aggregates.
+ * Every call appends an operation to the account, so the account is replaced every RESET_EVERY calls
+ * to keep the history (and the heap) bounded during long measurements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountBenchmark {
+
+    private static final int RESET_EVERY = 100_000;
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+    private static final BigDecimal LARGE_BALANCE = new BigDecimal("1000000000000.00");
+    private static final Money MONEY_AMOUNT = Money.of(AMOUNT);
+
+    private final LocalDate date = LocalDate.now();
+
+    private Account currentAccount;
+    private SavingAccount savingAccount;
+    private int calls;
+
+    @Setup
+    public void setup() {
+        reset();
+    }
+
+    @Benchmark
+    public BigDecimal accountDeposit() {
+        countCall();
+        return currentAccount.deposit(date, AMOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal accountWithdraw() {
+        countCall();
+        return currentAccount.withdraw(date, AMOUNT, "Card");
+    }
+
+    /**
+     * Same deposit through the Money overload, without the conversion from and to BigDecimal
+     */
+    @Benchmark
+    public Money accountDepositMoney() {
+        countCall();
+        return currentAccount.deposit(date, MONEY_AMOUNT);
+    }
+
+    @Benchmark
+    public Money accountWithdrawMoney() {
+        countCall();
+        return currentAccount.withdraw(date, MONEY_AMOUNT, "Card");
+    }
+
+    /**
+     * The max balance is never reached, so every deposit goes through the check and succeeds
+     */
+    @Benchmark
+    public BigDecimal savingAccountDeposit() {
+        countCall();
+        return savingAccount.deposit(date, AMOUNT);
+    }
+
+    private void countCall() {
+        if (++calls == RESET_EVERY) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        calls = 0;
+        currentAccount = new Account("benchmark", LARGE_BALANCE);
+        savingAccount = new SavingAccount(LARGE_BALANCE);
+    }
+}
@@ -0,0 +1,101 @@
+package com.bank.benchmarks;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bank.adapters.mappers.BankMapper;
+import com.bank.infrastructure.cache.HotAccountCache;
+import com.bank.infrastructure.ledger.LedgerEngine;
+import com.bank.infrastructure.repositories.journal.JournalInfrastructureRepository;
+import com.bank.infrastructure.repositories.journal.JournalSnapshotStore;
+import com.bank.infrastructure.repositories.journal.JournalTransactionManager;
+import com.bank.infrastructure.repositories.journal.OperationJournal;
+import com.bank.infrastructure.services.AccountServiceDatabase;
+import com.bank.infrastructure.services.OptimisticRetryExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Deposits from 8 threads on the seed account of the journal adapter (synced to disk on every commit) : through
+ * the account service, one transaction and one conditional update per deposit, against the ledger engine, one
+ * writer thread committing the deposits published meanwhile in one transaction.
+ * The same comparison against the JPA adapter and PostgreSQL is LedgerEngineLoadTest (application, -Pload-test).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class LedgerEngineBenchmark {
+
+    private static final String ACCOUNT_NUMBER = "1";
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private final LocalDate date = LocalDate.now();
+
+    private Path directory;
+    private OperationJournal journal;
+    private AccountServiceDatabase accountService;
+    private LedgerEngine ledgerEngine;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("ledger-benchmark");
+        journal = new OperationJournal(directory.resolve("bank.journal"), 64 << 20, 1);
+        JournalInfrastructureRepository repository = new JournalInfrastructureRepository(journal,
+            new JournalSnapshotStore(directory.resolve("bank.journal.snapshot")));
+        PlatformTransactionManager transactionManager = new JournalTransactionManager(journal);
+        HotAccountCache hotAccountCache = new HotAccountCache(1000, 16);
+
+        accountService = new AccountServiceDatabase(repository, Mappers.getMapper(BankMapper.class), hotAccountCache,
+                                                    new OptimisticRetryExecutor(transactionManager, 5, 5, 100),
+                                                    new SimpleMeterRegistry(), transactionManager,
+                                                    false, 256, 200, 10000, Optional.empty());
+        ledgerEngine = new LedgerEngine(repository, hotAccountCache, transactionManager, Set.of(), 1, 1024, 256, 1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ledgerEngine.close();
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal serviceDeposit() {
+        return accountService.deposit(ACCOUNT_NUMBER, date, AMOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal ledgerDeposit() {
+        return ledgerEngine.deposit(ACCOUNT_NUMBER, date, AMOUNT);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.adapters.dto.MonthlyReviewDTO;
+import com.bank.adapters.dto.OperationDTO;
+import com.bank.adapters.mappers.BankMapper;
+import com.bank.domain.Account;
+import com.bank.domain.MonthlyReview;
+import com.bank.domain.Operation;
+import com.bank.infrastructure.entities.AccountEntity;
+
+/**
+ * Conversions between the domain, the JPA entities and the DTOs, done on every request
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final BankMapper bankMapper = Mappers.getMapper(BankMapper.class);
+
+    private Account account;
+    private AccountEntity accountEntity;
+    private Operation operation;
+    private OperationDTO operationDTO;
+    private MonthlyReview monthlyReview;
+
+    @Setup
+    public void setup() {
+        account = new Account("benchmark", new BigDecimal("150.00"));
+        account.setOverdraw(BigDecimal.ZERO);
+        accountEntity = new AccountEntity().fromDomain(account);
+
+        operation = new Operation(LocalDate.now(), new BigDecimal("12.34"), "Card");
+        operationDTO = new OperationDTO(LocalDate.now(), new BigDecimal("12.34"), "Card");
+
+        for (int i = 0; i < 100; i++) {
+            account.deposit(LocalDate.now().minusDays(i % 28), new BigDecimal("1.00"));
+        }
+        monthlyReview = account.getMonthlyOperations();
+    }
+
+    @Benchmark
+    public Account accountEntityToDomain() {
+        return accountEntity.toDomain();
+    }
+
+    @Benchmark
+    public AccountEntity accountEntityFromDomain() {
+        return new AccountEntity().fromDomain(account);
+    }
+
+    @Benchmark
+    public OperationDTO operationToDTO() {
+        return bankMapper.toOperationDTO(operation);
+    }
+
+    @Benchmark
+    public Operation operationFromDTO() {
+        return bankMapper.toOperation(operationDTO);
+    }
+
+    /**
+     * Monthly review of 100 operations
+     */
+    @Benchmark
+    public MonthlyReviewDTO monthlyReviewToDTO() {
+        return bankMapper.toMonthlyReviewDTO(monthlyReview);
+    }
+}
@@ -0,0 +1,65 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.domain.Money;
+
+/**
+ * The arithmetic of a withdrawal (guard against balance plus overdraw, then subtraction, then a deposit
+ * back so the balance stays bounded) on BigDecimal and on Money.
+ * Run with '-prof gc' to compare the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+    private static final BigDecimal OVERDRAW = new BigDecimal("100.00");
+
+    private static final Money MONEY_AMOUNT = Money.of(AMOUNT);
+    private static final Money MONEY_OVERDRAW = Money.of(OVERDRAW);
+
+    private BigDecimal balance = new BigDecimal("1000.00");
+    private Money moneyBalance = Money.of(balance);
+
+    @Benchmark
+    public BigDecimal bigDecimalWithdrawAndDeposit() {
+        if (AMOUNT.compareTo(BigDecimal.ZERO) > 0 && AMOUNT.compareTo(balance.add(OVERDRAW)) <= 0) {
+            balance = balance.subtract(AMOUNT);
+        }
+        balance = balance.add(AMOUNT);
+        return balance;
+    }
+
+    @Benchmark
+    public Money moneyWithdrawAndDeposit() {
+        if (MONEY_AMOUNT.isPositive() && !MONEY_AMOUNT.isGreaterThan(moneyBalance.add(MONEY_OVERDRAW))) {
+            moneyBalance = moneyBalance.subtract(MONEY_AMOUNT);
+        }
+        moneyBalance = moneyBalance.add(MONEY_AMOUNT);
+        return moneyBalance;
+    }
+
+    /**
+     * Cost of the boundary : the conversion done once per request between the DTO and the domain
+     */
+    @Benchmark
+    public BigDecimal moneyRoundTrip() {
+        return Money.of(AMOUNT).toBigDecimal();
+    }
+}
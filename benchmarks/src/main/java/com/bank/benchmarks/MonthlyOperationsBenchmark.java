@@ -0,0 +1,52 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.domain.Account;
+import com.bank.domain.MonthlyReview;
+
+/**
+ * Monthly review of an account whose history spreads over the last year, from 10^2 to 10^6 operations
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MonthlyOperationsBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    private int operations;
+
+    private Account account;
+
+    @Setup
+    public void setup() {
+        account = new Account("benchmark", BigDecimal.ZERO);
+        LocalDate today = LocalDate.now();
+        BigDecimal amount = new BigDecimal("10.00");
+        for (int i = 0; i < operations; i++) {
+            account.deposit(today.minusDays(365 - (365L * i / operations)), amount);
+        }
+    }
+
+    @Benchmark
+    public MonthlyReview getMonthlyOperations() {
+        return account.getMonthlyOperations();
+    }
+}
@@ -1,10 +1,7 @@
 package com.bank.domain;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import com.bank.domain.enums.AccountType;
@@ -12,15 +9,15 @@ import com.bank.domain.enums.AccountType;
 public class Account implements Comparable<Account> {
 
     protected String accountNumber;
-    protected BigDecimal balance = BigDecimal.ZERO;
+    protected Money balance = Money.ZERO;
     protected AccountType accountType = AccountType.CURRENT_ACCOUNT;
-    protected List<Operation> operations;
+    protected OperationHistory operations;
 
     /**
      * Explicit definition of the overdraw
     */
-    protected BigDecimal authorizedOverdraw;
-    protected BigDecimal overdraw;
+    protected Money authorizedOverdraw;
+    protected Money overdraw;
 
     /**
      * Account creation without parameters : we generate a random account number with an epmty balance
@@ -28,9 +25,9 @@ public class Account implements Comparable<Account> {
     public Account() {
         Integer randomNumber = (int) (( Math.random() + 1 ) * 1000000);
         this.accountNumber = randomNumber.toString();
-        this.balance = new BigDecimal(0);
-        this.authorizedOverdraw = new BigDecimal(0);
-        this.operations = new ArrayList<>();
+        this.balance = Money.ZERO;
+        this.authorizedOverdraw = Money.ZERO;
+        this.operations = new OperationHistory();
     }
 
     /**
@@ -38,9 +35,9 @@ public class Account implements Comparable<Account> {
     */
     public Account(String accountNumber) {
         this.accountNumber = accountNumber;
-        this.balance = new BigDecimal(0);
-        this.authorizedOverdraw = new BigDecimal(0);
-        this.operations = new ArrayList<>();
+        this.balance = Money.ZERO;
+        this.authorizedOverdraw = Money.ZERO;
+        this.operations = new OperationHistory();
     }
 
     /**
@@ -48,12 +45,12 @@ public class Account implements Comparable<Account> {
     */
     public Account(String accountNumber, BigDecimal initialBalance) {
         this.accountNumber = accountNumber;
-        this.authorizedOverdraw = new BigDecimal(0);;
-        this.operations = new ArrayList<>();
+        this.authorizedOverdraw = Money.ZERO;
+        this.operations = new OperationHistory();
         if(initialBalance.compareTo(BigDecimal.ZERO) > 0) {
             deposit(LocalDate.now(), initialBalance);
         } else {
-            this.balance = initialBalance;
+            this.balance = Money.of(initialBalance);
         }
     }
 
@@ -63,15 +60,15 @@ public class Account implements Comparable<Account> {
     }
 
     public BigDecimal getBalance() {
-        return balance;
+        return balance.toBigDecimal();
     }
 
     public BigDecimal getAuthorizedOverdraw() {
-        return authorizedOverdraw;
+        return authorizedOverdraw == null ? null : authorizedOverdraw.toBigDecimal();
     }
 
     public BigDecimal getOverdraw() {
-        return overdraw;
+        return overdraw == null ? null : overdraw.toBigDecimal();
     }
 
     public AccountType getAccountType() {
@@ -86,14 +83,14 @@ public class Account implements Comparable<Account> {
         if (authorizedOverdraw.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("The authorized overdraw have to be positive");
         }
-        this.authorizedOverdraw = authorizedOverdraw;
+        this.authorizedOverdraw = Money.of(authorizedOverdraw);
     }
 
     public void setOverdraw(BigDecimal overdraw) {
         if (overdraw.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("The overdraw have to be positive");
         }
-        this.overdraw = overdraw;
+        this.overdraw = Money.of(overdraw);
     }
 
     /**
@@ -103,7 +100,17 @@ public class Account implements Comparable<Account> {
      * @throws IllegalArgumentException if the amount is not positive
     */
     public BigDecimal deposit(LocalDate date, BigDecimal amount) throws IllegalArgumentException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        return deposit(date, Money.of(amount)).toBigDecimal();
+    }
+
+    /**
+     * Deposit an amount to the account, without BigDecimal arithmetic
+     * @param amount : The amount must be positive
+     * @return The new balance
+     * @throws IllegalArgumentException if the amount is not positive
+    */
+    public Money deposit(LocalDate date, Money amount) throws IllegalArgumentException {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
         this.balance = this.balance.add(amount);
@@ -121,9 +128,19 @@ public class Account implements Comparable<Account> {
      * @throws IllegalArgumentException if the amount is not positive or superior to the balance (plus de the authorized overdrawal)
     */
     public BigDecimal withdraw(LocalDate date, BigDecimal amount, String label) throws IllegalArgumentException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0 
+        return withdraw(date, Money.of(amount), label).toBigDecimal();
+    }
+
+    /**
+     * Withdraw an amount to the account, without BigDecimal arithmetic
+     * @param amount : The amount must be positive and inferior to the balance (plus de the authorized overdrawal)
+     * @return The new balance
+     * @throws IllegalArgumentException if the amount is not positive or superior to the balance (plus de the authorized overdrawal)
+    */
+    public Money withdraw(LocalDate date, Money amount, String label) throws IllegalArgumentException {
+        if (!amount.isPositive()
             || 
-            amount.compareTo(this.balance.add(authorizedOverdraw)) > 0
+            amount.isGreaterThan(this.balance.add(authorizedOverdraw))
         ) {
             throw new IllegalArgumentException("Withdraw amount must be positive and inferior to balance");
         }
@@ -136,14 +153,21 @@ public class Account implements Comparable<Account> {
     }
 
     /**
-     * Sort list in a reverse order comparing dates of operations, and returning the operations of the last 30 days
+     * Returning the operations of the last 30 days, most recent first, found by a range lookup in the history
      * @return List<Operation>
      */
     public MonthlyReview getMonthlyOperations() {
-        operations.sort(Comparator.comparing(Operation::getDate).reversed());
-        List<Operation> monthlyOperations=  operations.stream().filter(o -> o.getDate().isAfter(LocalDate.now().minusDays(30))).collect(Collectors.toList());
-        
-        return new MonthlyReview(monthlyOperations, balance, AccountType.CURRENT_ACCOUNT);
+        List<Operation> monthlyOperations = operations.mostRecentAfter(LocalDate.now().minusDays(30));
+
+        return new MonthlyReview(monthlyOperations, getBalance(), AccountType.CURRENT_ACCOUNT);
+    }
+
+    /**
+     * Returning the operations dated between two dates, both included
+     * @return List<Operation> oldest first
+     */
+    public List<Operation> getOperationsBetween(LocalDate from, LocalDate to) {
+        return operations.between(from, to);
     }
 
     @Override
@@ -157,7 +181,7 @@ public class Account implements Comparable<Account> {
     @Override
     public int compareTo(Account account) {
         if (this == account) return 0;
-        return account.getBalance().compareTo(balance);
+        return account.balance.compareTo(balance);
     }
 
     @Override
@@ -0,0 +1,133 @@
+package com.bank.domain;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns operation labels into small integer ids. A few labels ("New deposit", "Deposit", merchant
+ * names) cover most operations, so storing the id instead of the String shrinks every stored operation,
+ * and comparing two labels is comparing two ints.
+ * Ids are either given by the dictionary (intern) or by an external store such as the database (register) ;
+ * an id is never reused for another label. Lookups are lock free, only a new label takes a lock.
+ * A dictionary may be bounded : once it holds its capacity, new labels are not interned any more and
+ * the caller keeps them as they are. The shared dictionary is bounded, as it lives as long as the process.
+ */
+public final class LabelDictionary {
+
+    public static final int NO_LABEL = -1;
+    public static final int NOT_INTERNED = -2;
+
+    private static final int SHARED_CAPACITY = 4096;
+    private static final LabelDictionary SHARED = new LabelDictionary(SHARED_CAPACITY);
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] labels = new String[64];
+    private int nextId;
+    private final int capacity;
+
+    public LabelDictionary() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param capacity : labels held at most
+     */
+    public LabelDictionary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of a label dictionary has to be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Dictionary of the operation histories of the domain, shared by every account
+     */
+    public static LabelDictionary shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return the id of the label, given now if it is new, NO_LABEL for a null label, or NOT_INTERNED
+     * for a new label once the dictionary is full
+     */
+    public int intern(String label) {
+        if (label == null) {
+            return NO_LABEL;
+        }
+        Integer id = ids.get(label);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(label);
+            if (id != null) {
+                return id;
+            }
+            if (ids.size() >= capacity) {
+                return NOT_INTERNED;
+            }
+            int newId = nextId;
+            store(newId, label);
+            return newId;
+        }
+    }
+
+    /**
+     * Record a label whose id was given outside of the dictionary
+     * @return false if the label is new and the dictionary is full : the label is not recorded
+     * @throws IllegalArgumentException if the id or the label is already known with another value
+     */
+    public synchronized boolean register(int id, String label) {
+        if (id < 0) {
+            throw new IllegalArgumentException("A label id can not be negative: " + id);
+        }
+        Integer known = ids.get(label);
+        String knownLabel = label(id);
+        if (known != null && known == id && label.equals(knownLabel)) {
+            return true;
+        }
+        if (known != null || knownLabel != null) {
+            throw new IllegalArgumentException("The label " + label + " or the id " + id + " is already registered");
+        }
+        if (ids.size() >= capacity) {
+            return false;
+        }
+        store(id, label);
+        return true;
+    }
+
+    /**
+     * @return the id of a known label, or NO_LABEL
+     */
+    public int idOf(String label) {
+        Integer id = label == null ? null : ids.get(label);
+        return id == null ? NO_LABEL : id;
+    }
+
+    /**
+     * @return the label of a known id, or null
+     */
+    public String label(int id) {
+        String[] current = labels;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * The label array is published after the id is written to it, so a reader finding the id in the map
+     * always finds the label in the array
+     */
+    private void store(int id, String label) {
+        String[] current = labels;
+        if (id >= current.length) {
+            current = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+        }
+        current[id] = label;
+        labels = current;
+        ids.put(label, id);
+        nextId = Math.max(nextId, id + 1);
+    }
+}
@@ -0,0 +1,139 @@
+package com.bank.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable amount of money held as a number of cents in a long, the precision of the DECIMAL(19,2) columns.
+ * Additions, subtractions and comparisons are long arithmetic, checked for overflow.
+ * The scale the amount was created with (0 to 2 decimals, trailing zeros beyond are dropped) is kept for the
+ * conversion back to BigDecimal, as BigDecimal.add would keep it ; equals and compareTo ignore it.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int MAX_SCALE = 2;
+
+    public static final Money ZERO = new Money(0, 0);
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100};
+
+    private final long cents;
+    private final int scale;
+
+    private Money(long cents, int scale) {
+        this.cents = cents;
+        this.scale = scale;
+    }
+
+    /**
+     * Amount from a number of cents, with two decimals
+     */
+    public static Money ofCents(long cents) {
+        return new Money(cents, MAX_SCALE);
+    }
+
+    /**
+     * Amount from a number of cents, written with a number of decimals (0 to 2)
+     * @throws IllegalArgumentException if the scale is out of range, or the cents do not fit in it
+     */
+    public static Money ofCents(long cents, int scale) {
+        if (scale < 0 || scale > MAX_SCALE || cents % POWERS_OF_TEN[MAX_SCALE - scale] != 0) {
+            throw new IllegalArgumentException("Invalid scale " + scale + " for " + cents + " cents");
+        }
+        return new Money(cents, scale);
+    }
+
+    /**
+     * Exact conversion of a BigDecimal
+     * @throws IllegalArgumentException if the amount has a non zero digit after the second decimal,
+     * or does not fit in a long number of cents
+     */
+    public static Money of(BigDecimal amount) throws IllegalArgumentException {
+        int scale = amount.scale();
+        if (scale > MAX_SCALE || scale < 0) {
+            BigDecimal stripped = amount.stripTrailingZeros();
+            if (stripped.scale() > MAX_SCALE) {
+                throw new IllegalArgumentException("An amount can not have more than " + MAX_SCALE + " decimals: " + amount);
+            }
+            scale = Math.max(stripped.scale(), 0);
+        }
+        try {
+            return new Money(amount.movePointRight(MAX_SCALE).longValueExact(), scale);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("The amount is too large: " + amount, e);
+        }
+    }
+
+    /**
+     * @return the amount, with the scale it was created with (the largest one for a sum)
+     */
+    public BigDecimal toBigDecimal() {
+        if (scale == MAX_SCALE) {
+            return BigDecimal.valueOf(cents, MAX_SCALE);
+        }
+        return BigDecimal.valueOf(cents / POWERS_OF_TEN[MAX_SCALE - scale], scale);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * @throws ArithmeticException if the sum does not fit in a long number of cents
+     */
+    public Money add(Money other) {
+        return new Money(Math.addExact(cents, other.cents), Math.max(scale, other.scale));
+    }
+
+    /**
+     * @throws ArithmeticException if the difference does not fit in a long number of cents
+     */
+    public Money subtract(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents), Math.max(scale, other.scale));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(cents), scale);
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        return cents == ((Money) obj).cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
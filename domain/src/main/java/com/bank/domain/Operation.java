@@ -6,7 +6,7 @@ import java.time.LocalDate;
 public class Operation {
 
     private LocalDate date;
-    private BigDecimal amount;
+    private Money amount;
     private String label;
 
     // Default constructor required for Jackson deserialization
@@ -20,6 +20,12 @@ public class Operation {
         } else {
             this.date = date;
         }
+        this.amount = amount == null ? null : Money.of(amount);
+        this.label = label;
+    }
+
+    public Operation(LocalDate date, Money amount, String label) {
+        this.date = date == null ? LocalDate.now() : date;
         this.amount = amount;
         this.label = label;
     }
@@ -27,7 +33,7 @@ public class Operation {
 
     public Operation(BigDecimal amount, String label) {
         this.date = LocalDate.now();
-        this.amount = amount;
+        this.amount = amount == null ? null : Money.of(amount);
         this.label = label;
     }
 
@@ -40,6 +46,13 @@ public class Operation {
     }
 
     public BigDecimal getAmount() {
+        return amount == null ? null : amount.toBigDecimal();
+    }
+
+    /**
+     * Amount without conversion, for the history (not a property of the mapped objects)
+     */
+    Money getMoneyAmount() {
         return amount;
     }
 
@@ -0,0 +1,244 @@
+package com.bank.domain;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Operations of an account, kept sorted by date (oldest first, in insertion order for a same date).
+ * Operations mostly arrive in date order, so adding one is an append ; a back-dated operation is
+ * inserted at its place. Date ranges are found by binary search instead of sorting and filtering
+ * the whole history.
+ * The operations are stored column by column in primitive arrays (epoch day, amount in cents, scale
+ * of the amount, label id) allocated in chunks, about 17 bytes per operation instead of an Operation,
+ * a LocalDate and a BigDecimal each. Most histories are short (an account loaded from the database
+ * starts with its opening deposit), so the first chunk starts small and doubles until it is full
+ * sized. The lookups return read-only copies built from the columns.
+ * Labels are interned in a LabelDictionary, shared by every history unless another one is given. The
+ * labels a full dictionary does not take are interned in a dictionary of the history itself, which goes
+ * away with it.
+ */
+public class OperationHistory {
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int FIRST_CHUNK_SIZE = 8;
+
+    private static final byte NO_AMOUNT = -1;
+    private static final int OWN_LABEL_BASE = -2;
+
+    private int[][] days = new int[0][];
+    private long[][] cents = new long[0][];
+    private byte[][] scales = new byte[0][];
+    private int[][] labelIds = new int[0][];
+    private int size;
+
+    private final LabelDictionary labelDictionary;
+    private LabelDictionary ownLabels;
+
+    public OperationHistory() {
+        this(LabelDictionary.shared());
+    }
+
+    public OperationHistory(LabelDictionary labelDictionary) {
+        this.labelDictionary = labelDictionary;
+    }
+
+    /**
+     * Add an operation at its place in the history
+     * @param operation : only its values are kept, later changes to it are not seen by the history
+     */
+    public void add(Operation operation) {
+        int day = (int) operation.getDate().toEpochDay();
+        int index = size == 0 || day >= dayAt(size - 1) ? size : firstIndexAfter(day);
+        ensureCapacity(size + 1);
+        shiftRight(index);
+
+        int chunk = index >>> CHUNK_SHIFT;
+        int offset = index & CHUNK_MASK;
+        Money amount = operation.getMoneyAmount();
+        days[chunk][offset] = day;
+        cents[chunk][offset] = amount == null ? 0 : amount.getCents();
+        scales[chunk][offset] = amount == null ? NO_AMOUNT : (byte) amount.getScale();
+        labelIds[chunk][offset] = labelId(operation.getLabel());
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Read-only copy of the operation at an index, in date order
+     */
+    public Operation get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int chunk = index >>> CHUNK_SHIFT;
+        int offset = index & CHUNK_MASK;
+        byte scale = scales[chunk][offset];
+        int labelId = labelIds[chunk][offset];
+        return new Operation(LocalDate.ofEpochDay(days[chunk][offset]),
+                             scale == NO_AMOUNT ? null : Money.ofCents(cents[chunk][offset], scale),
+                             label(labelId));
+    }
+
+    /**
+     * Operations dated between two dates, both included
+     * @return List<Operation> oldest first
+     */
+    public List<Operation> between(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        int start = firstIndexFrom((int) from.toEpochDay());
+        int end = firstIndexAfter((int) to.toEpochDay());
+        List<Operation> result = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            result.add(get(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Operations dated strictly after a date
+     * @return List<Operation> most recent first
+     */
+    public List<Operation> mostRecentAfter(LocalDate date) {
+        int start = firstIndexAfter((int) date.toEpochDay());
+        List<Operation> result = new ArrayList<>(size - start);
+        for (int i = size - 1; i >= start; i--) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return the id of the label in the dictionary, or from OWN_LABEL_BASE down its id in the labels of the history
+     */
+    private int labelId(String label) {
+        int id = labelDictionary.intern(label);
+        if (id != LabelDictionary.NOT_INTERNED) {
+            return id;
+        }
+        if (ownLabels == null) {
+            ownLabels = new LabelDictionary();
+        }
+        return OWN_LABEL_BASE - ownLabels.intern(label);
+    }
+
+    private String label(int labelId) {
+        return labelId <= OWN_LABEL_BASE ? ownLabels.label(OWN_LABEL_BASE - labelId) : labelDictionary.label(labelId);
+    }
+
+    private int dayAt(int index) {
+        return days[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Grows the first chunk, then adds chunks until the capacity reaches the minimum, the full chunks
+     * are never copied
+     */
+    private void ensureCapacity(int minimum) {
+        int firstChunkSize = days.length == 0 ? 0 : days[0].length;
+        if (firstChunkSize < CHUNK_SIZE && minimum > firstChunkSize) {
+            growFirstChunk(Math.min(CHUNK_SIZE, Math.max(minimum, Math.max(FIRST_CHUNK_SIZE, firstChunkSize << 1))));
+        }
+        int chunks = (minimum + CHUNK_MASK) >>> CHUNK_SHIFT;
+        if (chunks <= days.length) {
+            return;
+        }
+        int previous = days.length;
+        int grown = Math.max(chunks, previous + (previous >> 1) + 1);
+        days = Arrays.copyOf(days, grown);
+        cents = Arrays.copyOf(cents, grown);
+        scales = Arrays.copyOf(scales, grown);
+        labelIds = Arrays.copyOf(labelIds, grown);
+        for (int chunk = previous; chunk < grown; chunk++) {
+            days[chunk] = new int[CHUNK_SIZE];
+            cents[chunk] = new long[CHUNK_SIZE];
+            scales[chunk] = new byte[CHUNK_SIZE];
+            labelIds[chunk] = new int[CHUNK_SIZE];
+        }
+    }
+
+    private void growFirstChunk(int capacity) {
+        if (days.length == 0) {
+            days = new int[][] {new int[capacity]};
+            cents = new long[][] {new long[capacity]};
+            scales = new byte[][] {new byte[capacity]};
+            labelIds = new int[][] {new int[capacity]};
+            return;
+        }
+        days[0] = Arrays.copyOf(days[0], capacity);
+        cents[0] = Arrays.copyOf(cents[0], capacity);
+        scales[0] = Arrays.copyOf(scales[0], capacity);
+        labelIds[0] = Arrays.copyOf(labelIds[0], capacity);
+    }
+
+    /**
+     * Moves the operations from an index to the end one place to the right, chunk by chunk
+     * (the last one of a chunk becomes the first one of the next chunk)
+     */
+    private void shiftRight(int index) {
+        if (index == size) {
+            return;
+        }
+        int firstChunk = index >>> CHUNK_SHIFT;
+        int lastChunk = size >>> CHUNK_SHIFT;
+        for (int chunk = lastChunk; chunk >= firstChunk; chunk--) {
+            int from = chunk == firstChunk ? index & CHUNK_MASK : 0;
+            int top = chunk == lastChunk ? size & CHUNK_MASK : CHUNK_MASK;
+            if (top > from) {
+                System.arraycopy(days[chunk], from, days[chunk], from + 1, top - from);
+                System.arraycopy(cents[chunk], from, cents[chunk], from + 1, top - from);
+                System.arraycopy(scales[chunk], from, scales[chunk], from + 1, top - from);
+                System.arraycopy(labelIds[chunk], from, labelIds[chunk], from + 1, top - from);
+            }
+            if (chunk > firstChunk) {
+                days[chunk][0] = days[chunk - 1][CHUNK_MASK];
+                cents[chunk][0] = cents[chunk - 1][CHUNK_MASK];
+                scales[chunk][0] = scales[chunk - 1][CHUNK_MASK];
+                labelIds[chunk][0] = labelIds[chunk - 1][CHUNK_MASK];
+            }
+        }
+    }
+
+    /**
+     * @return index of the first operation dated on or after the day
+     */
+    private int firstIndexFrom(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dayAt(middle) < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first operation dated strictly after the day
+     */
+    private int firstIndexAfter(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dayAt(middle) > day) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -2,15 +2,13 @@ package com.bank.domain;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import com.bank.domain.enums.AccountType;
 
 public class SavingAccount extends Account{
     
-    private BigDecimal maxBalance;
+    private Money maxBalance;
 
     /**
      * Creating a saving account with a max balance
@@ -18,15 +16,15 @@ public class SavingAccount extends Account{
      */
     public SavingAccount(BigDecimal maxBalance) {
         super();
-        this.maxBalance = maxBalance;
+        this.maxBalance = Money.of(maxBalance);
     }
 
     public void setMaxBalance(BigDecimal maxBalance) {
-        this.maxBalance = maxBalance;
+        this.maxBalance = Money.of(maxBalance);
     }
 
     public BigDecimal getMaxBalance() {
-        return maxBalance;
+        return maxBalance.toBigDecimal();
     }
 
 
@@ -39,7 +37,7 @@ public class SavingAccount extends Account{
         if (authorizedOverdraw != BigDecimal.ZERO) {
             throw new IllegalArgumentException("No authorized overwithdawal with asaving account");
         }
-        this.authorizedOverdraw = authorizedOverdraw;
+        this.authorizedOverdraw = Money.ZERO;
     }
 
     /**
@@ -49,14 +47,16 @@ public class SavingAccount extends Account{
      * @throws IllegalArgumentException if the amount is not positive or if it exceeds the max limit
      */
     @Override
-    public BigDecimal deposit(LocalDate date, BigDecimal amount) throws IllegalArgumentException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public Money deposit(LocalDate date, Money amount) throws IllegalArgumentException {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Deposit amount must be positive");
-        } else if ( (balance.add(amount)) .compareTo(maxBalance) > 0) {
+        }
+        Money newBalance = balance.add(amount);
+        if (newBalance.isGreaterThan(maxBalance)) {
             throw new IllegalArgumentException("The max balance will be exceeded");
         }
 
-        this.balance = this.balance.add(amount);
+        this.balance = newBalance;
 
         Operation operation = new Operation(date, amount, "New deposit");
         operations.add(operation);
@@ -71,10 +71,10 @@ public class SavingAccount extends Account{
      * @throws IllegalArgumentException if the amount is not positive or superior to the balance
     */
     @Override
-    public BigDecimal withdraw(LocalDate date, BigDecimal amount, String label) throws IllegalArgumentException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0 
+    public Money withdraw(LocalDate date, Money amount, String label) throws IllegalArgumentException {
+        if (!amount.isPositive()
             || 
-            amount.compareTo(this.balance) > 0
+            amount.isGreaterThan(this.balance)
         ) {
             throw new IllegalArgumentException("Withdraw amount must be positive and inferior to balance");
         }
@@ -87,15 +87,14 @@ public class SavingAccount extends Account{
     }
 
     /**
-     * Sort list in a reverse order comparing dates of operations, and returning the operations of the last 30 days
+     * Returning the operations of the last 30 days, most recent first, found by a range lookup in the history
      * @return List<Operation>
      */
     @Override
     public MonthlyReview getMonthlyOperations() {
-        operations.sort(Comparator.comparing(Operation::getDate).reversed());
-        List<Operation> monthlyOperations=  operations.stream().filter(o -> o.getDate().isAfter(LocalDate.now().minusDays(30))).collect(Collectors.toList());
-        
-        return new MonthlyReview(monthlyOperations, balance, AccountType.SAVING_ACCOUNT);
+        List<Operation> monthlyOperations = operations.mostRecentAfter(LocalDate.now().minusDays(30));
+
+        return new MonthlyReview(monthlyOperations, getBalance(), AccountType.SAVING_ACCOUNT);
     }
 
 
@@ -161,4 +161,20 @@ public class AccountTest {
         
     }
 
+    @Test
+    @DisplayName("Getting the operations between two dates")
+    void accountGetOperationsBetween() {
+        Account account = new Account();
+
+        account.deposit(DATE.minusDays(35), BigDecimal.valueOf(50));
+        account.deposit(DATE.minusDays(10), BigDecimal.valueOf(500));
+        account.withdraw(DATE.minusDays(23), BigDecimal.valueOf(10), "Starbucks");
+
+        List<Operation> operations = account.getOperationsBetween(DATE.minusDays(30), DATE.minusDays(10));
+
+        assertEquals(2, operations.size());
+        assertEquals(BigDecimal.valueOf(10), operations.get(0).getAmount());
+        assertEquals(BigDecimal.valueOf(500), operations.get(1).getAmount());
+    }
+
 }
@@ -0,0 +1,87 @@
+package com.bank.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LabelDictionaryTest {
+
+    @Test
+    @DisplayName("A label keeps the same id, and an id gives back its label")
+    void internTest() {
+        LabelDictionary dictionary = new LabelDictionary();
+        int deposit = dictionary.intern("New deposit");
+        int card = dictionary.intern("Card");
+
+        assertEquals(deposit, dictionary.intern("New deposit"));
+        assertEquals("Card", dictionary.label(card));
+        assertEquals(LabelDictionary.NO_LABEL, dictionary.intern(null));
+        assertEquals(LabelDictionary.NO_LABEL, dictionary.idOf("Unknown"));
+        assertEquals(null, dictionary.label(LabelDictionary.NO_LABEL));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Ids given by an external store are kept, and new ids never collide with them")
+    void registerTest() {
+        LabelDictionary dictionary = new LabelDictionary();
+        dictionary.register(500, "Rent");
+        dictionary.register(500, "Rent");
+
+        assertEquals(500, dictionary.idOf("Rent"));
+        assertEquals(501, dictionary.intern("Groceries"));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.register(7, "Rent"));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.register(500, "Salary"));
+    }
+
+    @Test
+    @DisplayName("A full dictionary keeps its labels and does not take new ones")
+    void capacityTest() {
+        LabelDictionary dictionary = new LabelDictionary(2);
+        int deposit = dictionary.intern("New deposit");
+        dictionary.intern("Card");
+
+        assertEquals(LabelDictionary.NOT_INTERNED, dictionary.intern("Rent"));
+        assertFalse(dictionary.register(10, "Rent"));
+        assertEquals(deposit, dictionary.intern("New deposit"));
+        assertEquals(LabelDictionary.NO_LABEL, dictionary.idOf("Rent"));
+        assertEquals(2, dictionary.size());
+        assertThrows(IllegalArgumentException.class, () -> new LabelDictionary(0));
+    }
+
+    @Test
+    @DisplayName("Threads interning the same labels get the same ids")
+    void concurrentInternTest() throws InterruptedException {
+        LabelDictionary dictionary = new LabelDictionary();
+        ConcurrentMap<String, Integer> seen = new ConcurrentHashMap<>();
+        AtomicInteger mismatches = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    String label = "Label " + (i % 300);
+                    int id = dictionary.intern(label);
+                    if (id != seen.computeIfAbsent(label, l -> id) || !label.equals(dictionary.label(id))) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, mismatches.get());
+        assertEquals(300, dictionary.size());
+    }
+}
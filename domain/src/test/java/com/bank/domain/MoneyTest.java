@@ -0,0 +1,56 @@
+package com.bank.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+
+    @Test
+    @DisplayName("Converting to and from BigDecimal keeps the value and the scale")
+    void bigDecimalConversionOK() {
+        assertEquals(new BigDecimal("12.34"), Money.of(new BigDecimal("12.34")).toBigDecimal());
+        assertEquals(new BigDecimal("12.3"), Money.of(new BigDecimal("12.3")).toBigDecimal());
+        assertEquals(BigDecimal.valueOf(12), Money.of(BigDecimal.valueOf(12)).toBigDecimal());
+        assertEquals(new BigDecimal("-0.05"), Money.of(new BigDecimal("-0.05")).toBigDecimal());
+        assertEquals(new BigDecimal("1.5"), Money.of(new BigDecimal("1.500")).toBigDecimal());
+        assertEquals(BigDecimal.valueOf(1200), Money.of(new BigDecimal("1.2E+3")).toBigDecimal());
+        assertEquals(1234L, Money.of(new BigDecimal("12.34")).getCents());
+    }
+
+    @Test
+    @DisplayName("Amounts with more than two decimals or beyond a long number of cents are refused")
+    void bigDecimalConversionKO() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("100000000000000000000")));
+    }
+
+    @Test
+    @DisplayName("Arithmetic keeps the largest scale, as BigDecimal does, and is checked for overflow")
+    void arithmeticOK() {
+        Money sum = Money.of(BigDecimal.valueOf(10)).add(Money.of(new BigDecimal("0.5")));
+        assertEquals(new BigDecimal("10.5"), sum.toBigDecimal());
+        assertEquals(new BigDecimal("-4.5"), Money.of(BigDecimal.valueOf(6)).subtract(sum).toBigDecimal());
+        assertEquals(Money.ofCents(1050), sum);
+        assertTrue(sum.isGreaterThan(Money.ofCents(1049)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).add(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).subtract(Money.ofCents(1)));
+    }
+
+    @Test
+    @DisplayName("Deposit and withdraw on an account with Money amounts")
+    void accountOperationsOK() {
+        Account account = new Account("1");
+        assertEquals(Money.ofCents(5000), account.deposit(LocalDate.now(), Money.ofCents(5000)));
+        assertEquals(Money.ofCents(1234), account.withdraw(LocalDate.now(), Money.ofCents(3766), "Cash"));
+        assertEquals(new BigDecimal("12.34"), account.getBalance());
+        assertThrows(IllegalArgumentException.class, () -> account.withdraw(LocalDate.now(), Money.ofCents(1235), "Cash"));
+        assertThrows(IllegalArgumentException.class, () -> account.deposit(LocalDate.now(), Money.ZERO));
+    }
+}
@@ -0,0 +1,131 @@
+package com.bank.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class OperationHistoryTest {
+
+    private final LocalDate DATE = LocalDate.of(2025, 6, 15);
+
+    @Test
+    @DisplayName("Back-dated operations are inserted at their place")
+    void historyStaysSortedTest() {
+        OperationHistory history = new OperationHistory();
+        history.add(new Operation(DATE, BigDecimal.valueOf(1), "1"));
+        history.add(new Operation(DATE.plusDays(2), BigDecimal.valueOf(3), "3"));
+        history.add(new Operation(DATE.plusDays(1), BigDecimal.valueOf(2), "2"));
+        history.add(new Operation(DATE.minusDays(1), BigDecimal.valueOf(0), "0"));
+
+        List<Operation> operations = history.between(DATE.minusDays(10), DATE.plusDays(10));
+
+        assertEquals(4, history.size());
+        assertEquals("0", operations.get(0).getLabel());
+        assertEquals("1", operations.get(1).getLabel());
+        assertEquals("2", operations.get(2).getLabel());
+        assertEquals("3", operations.get(3).getLabel());
+    }
+
+    @Test
+    @DisplayName("Date range lookups include both bounds")
+    void historyBetweenTest() {
+        OperationHistory history = new OperationHistory();
+        for (int i = 0; i < 10; i++) {
+            history.add(new Operation(DATE.plusDays(i), BigDecimal.valueOf(i), "Day " + i));
+            history.add(new Operation(DATE.plusDays(i), BigDecimal.valueOf(i), "Day " + i));
+        }
+
+        List<Operation> operations = history.between(DATE.plusDays(3), DATE.plusDays(5));
+
+        assertEquals(6, operations.size());
+        assertEquals(DATE.plusDays(3), operations.get(0).getDate());
+        assertEquals(DATE.plusDays(5), operations.get(5).getDate());
+        assertTrue(history.between(DATE.plusDays(5), DATE.plusDays(3)).isEmpty());
+        assertTrue(history.between(DATE.plusDays(20), DATE.plusDays(30)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Operations after a date are returned most recent first, the date itself excluded")
+    void historyMostRecentAfterTest() {
+        OperationHistory history = new OperationHistory();
+        for (int i = 0; i < 10; i++) {
+            history.add(new Operation(DATE.plusDays(i), BigDecimal.valueOf(i), "Day " + i));
+        }
+
+        List<Operation> operations = history.mostRecentAfter(DATE.plusDays(6));
+
+        assertEquals(3, operations.size());
+        assertEquals(DATE.plusDays(9), operations.get(0).getDate());
+        assertEquals(DATE.plusDays(7), operations.get(2).getDate());
+    }
+
+    @Test
+    @DisplayName("Back-dated operations inserted while the first chunk grows keep the date order and their values")
+    void historyFirstChunkGrowthTest() {
+        OperationHistory history = new OperationHistory();
+        for (int i = 0; i < 40; i++) {
+            history.add(new Operation(DATE.minusDays(i), BigDecimal.valueOf(i), "Day " + i));
+        }
+
+        List<Operation> operations = history.between(DATE.minusDays(40), DATE);
+
+        assertEquals(40, operations.size());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(DATE.minusDays(39 - i), operations.get(i).getDate());
+            assertEquals(BigDecimal.valueOf(39 - i), operations.get(i).getAmount());
+            assertEquals("Day " + (39 - i), operations.get(i).getLabel());
+        }
+    }
+
+    @Test
+    @DisplayName("The labels a full dictionary does not take are kept by the history")
+    void historyFullDictionaryTest() {
+        LabelDictionary dictionary = new LabelDictionary(1);
+        OperationHistory history = new OperationHistory(dictionary);
+        history.add(new Operation(DATE, BigDecimal.ONE, "Deposit"));
+        history.add(new Operation(DATE, BigDecimal.ONE, "Rent"));
+        history.add(new Operation(DATE, BigDecimal.ONE, "Card"));
+        history.add(new Operation(DATE, BigDecimal.ONE, null));
+        history.add(new Operation(DATE, BigDecimal.ONE, "Rent"));
+
+        assertEquals(1, dictionary.size());
+        assertEquals("Deposit", history.get(0).getLabel());
+        assertEquals("Rent", history.get(1).getLabel());
+        assertEquals("Card", history.get(2).getLabel());
+        assertEquals(null, history.get(3).getLabel());
+        assertEquals("Rent", history.get(4).getLabel());
+    }
+
+    @Test
+    @DisplayName("Back-dated operations inserted across several chunks keep the date order and their values")
+    void historyAcrossChunksTest() {
+        OperationHistory history = new OperationHistory();
+        List<Operation> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            Operation operation = new Operation(DATE.plusDays(random.nextInt(400)), BigDecimal.valueOf(i, i % 3), "Label " + (i % 7));
+            history.add(operation);
+            expected.add(operation);
+        }
+        expected.sort(Comparator.comparing(Operation::getDate));
+
+        List<Operation> operations = history.between(DATE, DATE.plusDays(400));
+
+        assertEquals(5000, operations.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDate(), operations.get(i).getDate());
+            assertEquals(expected.get(i).getAmount(), operations.get(i).getAmount());
+            assertEquals(expected.get(i).getLabel(), operations.get(i).getLabel());
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.bank.infrastructure.cache;
+
+import java.math.BigDecimal;
+
+import com.bank.domain.Account;
+import com.bank.domain.enums.AccountType;
+
+/**
+ * Immutable copy of the state of an account, safe to share between threads
+ */
+public record AccountSnapshot(String accountNumber,
+                              BigDecimal balance,
+                              BigDecimal authorizedOverdraw,
+                              BigDecimal overdraw,
+                              AccountType accountType) {
+
+    public static AccountSnapshot of(Account account) {
+        return new AccountSnapshot(account.getAccountNumber(),
+                                   account.getBalance(),
+                                   account.getAuthorizedOverdraw(),
+                                   account.getOverdraw(),
+                                   account.getAccountType());
+    }
+
+    public AccountSnapshot withBalance(BigDecimal newBalance) {
+        return new AccountSnapshot(accountNumber, newBalance, authorizedOverdraw, overdraw, accountType);
+    }
+}
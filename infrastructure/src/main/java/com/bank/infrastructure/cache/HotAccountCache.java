@@ -0,0 +1,224 @@
+package com.bank.infrastructure.cache;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded, lock-striped cache of the most recently used accounts.
+ * Each stripe is an LRU map guarded by its own lock, so lookups of different accounts rarely contend.
+ * Writes go through the cache : the new state replaces the cached one instead of forcing a reload.
+ */
+@Component
+public class HotAccountCache {
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HotAccountCache(@Value("${bank.cache.accounts.max-size:100000}") int maxSize,
+                           @Value("${bank.cache.accounts.stripes:64}") int stripeCount) {
+        if (maxSize <= 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("The cache size and the number of stripes have to be positive");
+        }
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        int capacity = Math.max(1, maxSize / size);
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * Get a cached account
+     * @param accountNumber
+     * @return the account, or empty if it is not cached
+     */
+    public Optional<AccountSnapshot> get(String accountNumber) {
+        Stripe stripe = stripeFor(accountNumber);
+        AccountSnapshot snapshot;
+        stripe.lock.lock();
+        try {
+            snapshot = stripe.entries.get(accountNumber);
+        } finally {
+            stripe.lock.unlock();
+        }
+        (snapshot == null ? misses : hits).increment();
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Stamp to take before loading an account from the database, and to give back to put()
+     * @param accountNumber
+     * @return the number of writes made so far in the stripe of the account
+     */
+    public long stamp(String accountNumber) {
+        Stripe stripe = stripeFor(accountNumber);
+        stripe.lock.lock();
+        try {
+            return stripe.writes;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Cache an account loaded from the database, unless a write happened in its stripe since the stamp
+     * was taken : the loaded state may then be older than the last write
+     * @param accountNumber
+     * @param snapshot
+     * @param stamp : value returned by stamp() before the account was loaded
+     */
+    public void put(String accountNumber, AccountSnapshot snapshot, long stamp) {
+        Stripe stripe = stripeFor(accountNumber);
+        stripe.lock.lock();
+        try {
+            if (stripe.writes == stamp) {
+                stripe.entries.put(accountNumber, snapshot);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Write the new state of an account through the cache
+     * @param accountNumber
+     * @param snapshot
+     * @return the cached snapshot
+     */
+    public AccountSnapshot write(String accountNumber, AccountSnapshot snapshot) {
+        Stripe stripe = stripeFor(accountNumber);
+        stripe.lock.lock();
+        try {
+            stripe.entries.put(accountNumber, snapshot);
+            stripe.writes++;
+        } finally {
+            stripe.lock.unlock();
+        }
+        writes.increment();
+        return snapshot;
+    }
+
+    /**
+     * Write a new balance through the cache, if the account is cached
+     * @param accountNumber
+     * @param balance
+     * @return the cached snapshot, or null if the account is not cached
+     */
+    public AccountSnapshot writeBalance(String accountNumber, BigDecimal balance) {
+        Stripe stripe = stripeFor(accountNumber);
+        AccountSnapshot written;
+        stripe.lock.lock();
+        try {
+            written = stripe.entries.computeIfPresent(accountNumber, (key, snapshot) -> snapshot.withBalance(balance));
+            stripe.writes++;
+        } finally {
+            stripe.lock.unlock();
+        }
+        writes.increment();
+        return written;
+    }
+
+    /**
+     * Confirm a write once it is committed : loads of the account started before the commit may have read
+     * the previous state, so they can not be cached any more, and an entry other than the written one,
+     * put by such a load in between, is removed
+     * @param accountNumber
+     * @param written : snapshot returned by write() or writeBalance()
+     */
+    public void confirm(String accountNumber, AccountSnapshot written) {
+        Stripe stripe = stripeFor(accountNumber);
+        boolean removed = false;
+        stripe.lock.lock();
+        try {
+            AccountSnapshot cached = stripe.entries.get(accountNumber);
+            if (cached != null && cached != written) {
+                stripe.entries.remove(accountNumber);
+                removed = true;
+            }
+            stripe.writes++;
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (removed) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Remove an account, when its new state is unknown
+     * @param accountNumber
+     */
+    public void evict(String accountNumber) {
+        Stripe stripe = stripeFor(accountNumber);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(accountNumber);
+            stripe.writes++;
+        } finally {
+            stripe.lock.unlock();
+        }
+        evictions.increment();
+    }
+
+    /**
+     * Counters since the start of the application
+     * @return hits, misses, writes, evictions and the number of cached accounts
+     */
+    public CacheStatistics statistics() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return new CacheStatistics(hits.sum(), misses.sum(), writes.sum(), evictions.sum(), size);
+    }
+
+    private Stripe stripeFor(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public record CacheStatistics(long hits, long misses, long writes, long evictions, long size) {
+
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, AccountSnapshot> entries;
+        private long writes;
+
+        private Stripe(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AccountSnapshot> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
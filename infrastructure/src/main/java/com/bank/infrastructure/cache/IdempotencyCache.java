@@ -0,0 +1,105 @@
+package com.bank.infrastructure.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded, lock-striped cache of the responses of the recent idempotent requests, in front of the
+ * idempotency_key table. Each stripe is an LRU map guarded by its own lock ; an entry older than the
+ * time to live is dropped when it is read.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final long ttlMillis;
+
+    public IdempotencyCache(@Value("${bank.idempotency.cache.max-size:100000}") int maxSize,
+                            @Value("${bank.idempotency.cache.stripes:64}") int stripeCount,
+                            @Value("${bank.idempotency.ttl-ms:86400000}") long ttlMillis) {
+        if (maxSize <= 0 || stripeCount <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("The cache size, the number of stripes and the time to live have to be positive");
+        }
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        this.ttlMillis = ttlMillis;
+        int capacity = Math.max(1, maxSize / size);
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * Get the response of a key
+     * @param key
+     * @param nowMillis
+     * @return the response, or empty if it is not cached or expired
+     */
+    public Optional<StoredResponse> get(String key, long nowMillis) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            CachedResponse entry = stripe.entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (nowMillis - entry.storedAtMillis >= ttlMillis) {
+                stripe.entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.response);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Cache the response of a key
+     * @param key
+     * @param response
+     * @param storedAtMillis : time the response was stored, the entry expires a time to live later
+     */
+    public void put(String key, StoredResponse response, long storedAtMillis) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.put(key, new CachedResponse(response, storedAtMillis));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private record CachedResponse(StoredResponse response, long storedAtMillis) {
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, CachedResponse> entries;
+
+        private Stripe(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
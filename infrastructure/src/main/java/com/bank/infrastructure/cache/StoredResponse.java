@@ -0,0 +1,14 @@
+package com.bank.infrastructure.cache;
+
+/**
+ * Response of a request sent with an idempotency key, replayed as is when the request is retried
+ * @param fingerprint : hash of the request, a key reused for another request is refused
+ * @param status : HTTP status
+ * @param body : JSON body
+ */
+public record StoredResponse(String fingerprint, int status, String body) {
+
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.infrastructure.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Wraps the DataSource in a BoundedDataSource when bank.datasource.max-concurrent-connections is set
+ * (see the virtual profile)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bank.datasource", name = "max-concurrent-connections")
+public class BoundedDataSourceConfiguration {
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        int maxConcurrent = environment.getRequiredProperty("bank.datasource.max-concurrent-connections", Integer.class);
+        long acquireTimeoutMillis = environment.getProperty("bank.datasource.acquire-timeout-ms", Long.class, 30000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    return new BoundedDataSource(dataSource, maxConcurrent, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -4,18 +4,14 @@ import com.bank.domain.Account;
 import java.math.BigDecimal;
 import com.bank.domain.enums.AccountType;
 
-import java.util.ArrayList;
-import java.util.List;
 import jakarta.persistence.Entity;    
 import jakarta.persistence.Table;
-import jakarta.persistence.OneToMany;
-import jakarta.persistence.CascadeType;
-import jakarta.persistence.JoinColumn;  
 import jakarta.persistence.Id;  
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.Version;
 
 
 @Entity
@@ -30,21 +26,43 @@ public class AccountEntity {
     @Enumerated(EnumType.STRING)
     protected AccountType accountType;
 
-    @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn( name="account_number")
-    protected List<OperationEntity> operations;
-
     protected BigDecimal authorizedOverdraw;
     protected BigDecimal overdraw;
 
-    /* Utility methods and conversion to and from domain */
-    public void addOperation(OperationEntity operationEntity) {
-        if(operations == null) {
-            operations = new ArrayList<OperationEntity>();
-        }
-        operations.add(operationEntity);
+    /**
+     * Optimistic lock : incremented by every update of the account, including the conditional balance updates
+     */
+    @Version
+    protected Long version;
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Account read outside of JPA (reactive and journal adapters)
+     */
+    public static AccountEntity of(String accountNumber, BigDecimal balance, AccountType accountType,
+                                   BigDecimal authorizedOverdraw, BigDecimal overdraw, Long version) {
+        AccountEntity accountEntity = new AccountEntity();
+        accountEntity.accountNumber = accountNumber;
+        accountEntity.balance = balance;
+        accountEntity.accountType = accountType;
+        accountEntity.authorizedOverdraw = authorizedOverdraw;
+        accountEntity.overdraw = overdraw;
+        accountEntity.version = version;
+        return accountEntity;
     }
 
+    /* Conversion to and from domain (operations are written and read through the operation table only) */
     public Account toDomain() {
         Account account = new Account(this.accountNumber, this.balance);
         account.setAccountType(this.accountType);
@@ -0,0 +1,129 @@
+package com.bank.infrastructure.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Aggregates of the operations of an account within a month, kept up to date with each operation.
+ * It is only ever written by an upsert adding a delta (see InfrastructureRepository.addToMonthlySummary),
+ * so Hibernate never updates it.
+ */
+@Entity
+@Immutable
+@Table(name = "monthly_summary")
+public class MonthlySummaryEntity {
+
+    @EmbeddedId
+    private MonthlySummaryId id;
+
+    @Column(name = "deposit_count")
+    private long depositCount;
+
+    @Column(name = "withdrawal_count")
+    private long withdrawalCount;
+
+    @Column(name = "total_deposits")
+    private BigDecimal totalDeposits = BigDecimal.ZERO;
+
+    @Column(name = "total_withdrawals")
+    private BigDecimal totalWithdrawals = BigDecimal.ZERO;
+
+    /**
+     * Balance of the account at the end of the month. It is not stored, as an operation dated in an earlier
+     * month changes it : it is derived when read, from the balance of the account and the later months.
+     */
+    @Transient
+    private BigDecimal closingBalance;
+
+    protected MonthlySummaryEntity() {
+    }
+
+    public MonthlySummaryEntity(String accountNumber, int year, int month) {
+        this.id = new MonthlySummaryId(accountNumber, year, month);
+    }
+
+    public MonthlySummaryEntity(String accountNumber, int year, int month, long depositCount, long withdrawalCount,
+                                BigDecimal totalDeposits, BigDecimal totalWithdrawals, BigDecimal closingBalance) {
+        this(accountNumber, year, month);
+        this.depositCount = depositCount;
+        this.withdrawalCount = withdrawalCount;
+        this.totalDeposits = totalDeposits;
+        this.totalWithdrawals = totalWithdrawals;
+        this.closingBalance = closingBalance;
+    }
+
+    /**
+     * Empty summary of the month of a date
+     */
+    public static MonthlySummaryEntity of(String accountNumber, LocalDate date) {
+        return new MonthlySummaryEntity(accountNumber, date.getYear(), date.getMonthValue());
+    }
+
+    /* Accumulation of the operations of the month */
+    public MonthlySummaryEntity addDeposit(BigDecimal amount) {
+        this.depositCount++;
+        this.totalDeposits = this.totalDeposits.add(amount);
+        return this;
+    }
+
+    public MonthlySummaryEntity addWithdrawal(BigDecimal amount) {
+        this.withdrawalCount++;
+        this.totalWithdrawals = this.totalWithdrawals.add(amount);
+        return this;
+    }
+
+    /**
+     * Summary of the month once a delta is added
+     * @param delta : operations recorded since this summary
+     * @return the new summary
+     */
+    public MonthlySummaryEntity plus(MonthlySummaryEntity delta) {
+        return new MonthlySummaryEntity(getAccountNumber(), getYear(), getMonth(),
+                                        depositCount + delta.depositCount,
+                                        withdrawalCount + delta.withdrawalCount,
+                                        totalDeposits.add(delta.totalDeposits),
+                                        totalWithdrawals.add(delta.totalWithdrawals),
+                                        null);
+    }
+
+    /* Getters */
+    public String getAccountNumber() {
+        return id.getAccountNumber();
+    }
+
+    public int getYear() {
+        return id.getYear();
+    }
+
+    public int getMonth() {
+        return id.getMonth();
+    }
+
+    public long getDepositCount() {
+        return depositCount;
+    }
+
+    public long getWithdrawalCount() {
+        return withdrawalCount;
+    }
+
+    public BigDecimal getTotalDeposits() {
+        return totalDeposits;
+    }
+
+    public BigDecimal getTotalWithdrawals() {
+        return totalWithdrawals;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+}
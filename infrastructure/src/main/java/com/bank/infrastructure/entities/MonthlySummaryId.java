@@ -0,0 +1,56 @@
+package com.bank.infrastructure.entities;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Key of a monthly summary : an account and a calendar month
+ */
+@Embeddable
+public class MonthlySummaryId implements Serializable {
+
+    @Column(name = "account_number")
+    private String accountNumber;
+
+    @Column(name = "summary_year")
+    private int year;
+
+    @Column(name = "summary_month")
+    private int month;
+
+    protected MonthlySummaryId() {
+    }
+
+    public MonthlySummaryId(String accountNumber, int year, int month) {
+        this.accountNumber = accountNumber;
+        this.year = year;
+        this.month = month;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof MonthlySummaryId id)) return false;
+        return year == id.year && month == id.month && accountNumber.equals(id.accountNumber);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountNumber, year, month);
+    }
+}
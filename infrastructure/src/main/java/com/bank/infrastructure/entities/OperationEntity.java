@@ -5,43 +5,90 @@ import com.bank.domain.Operation;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;    
 import jakarta.persistence.Table;
-import jakarta.persistence.ManyToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Transient;
 
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Operations are append-only : they are only ever inserted, so Hibernate never dirty-checks or updates them
+ */
 @Entity
+@Immutable
 @Table(name = "operation")
 public class OperationEntity {
 
+    /**
+     * Pooled allocation : one nextval reserves a block of 50 ids, the increment of operation_seq must match
+     */
     @Id  
     @GeneratedValue( strategy=GenerationType.SEQUENCE, generator="operation_seq" )
     @SequenceGenerator(
         name = "operation_seq",
         sequenceName = "operation_seq",
-        allocationSize = 1
+        allocationSize = 50
     )
     private Long operationId;
 
     private LocalDate date;
     private BigDecimal amount;
+
+    /**
+     * The label is stored as the id of a row of operation_label, resolved by the repository
+     */
+    @Column(name = "label_id")
+    private Integer labelId;
+
+    @Transient
     private String label;
     
-    @JoinColumn(name = "account_number")
-    @ManyToOne
-    private AccountEntity accountEntity;
+    /**
+     * The account is referenced by its number only : writing an operation never loads the account
+     */
+    @Column(name = "account_number")
+    private String accountNumber;
 
     /* Utility methods and conversion to and from domain */
+    public Long getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(Long operationId) {
+        this.operationId = operationId;
+    }
+
     public LocalDate getDate() {
         return date;
     }
 
-    public void setAccountEntity(AccountEntity accountEntity) {
-        this.accountEntity = accountEntity;
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public Integer getLabelId() {
+        return labelId;
+    }
+
+    public void setLabelId(Integer labelId) {
+        this.labelId = labelId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
     }
 
     public Operation toDomain() {
@@ -0,0 +1,467 @@
+package com.bank.infrastructure.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.domain.Account;
+import com.bank.domain.Money;
+import com.bank.domain.Operation;
+import com.bank.infrastructure.cache.AccountSnapshot;
+import com.bank.infrastructure.cache.HotAccountCache;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
+import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.repositories.InfrastructureRepository;
+
+/**
+ * Single-writer engine for the deposits and withdrawals of the hottest accounts. The accounts are split in
+ * partitions by their number ; each partition has one writer thread fed by a ring buffer, and that thread is
+ * the only one changing the state of its accounts, so no lock is taken on an account.
+ * The writer takes the events published in its ring (maxBatchSize at most), checks them in order against the
+ * domain rules, and commits them in one transaction : one conditional balance update per account (the net
+ * change of the batch), the operations inserted as a batch and each month summary updated once. Once committed,
+ * an immutable snapshot of each account is published for the reads, then the callers get their result.
+ * The database stays the reference : if the balance it returns is not the one expected (the account was changed
+ * outside of the engine), the batch is rolled back, its accounts read again and the batch checked once more.
+ */
+@Component
+@ConditionalOnProperty(name = "bank.ledger.enabled", havingValue = "true")
+public class LedgerEngine implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final InfrastructureRepository infrastructureRepository;
+    private final HotAccountCache hotAccountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> accountNumbers;
+    private final int maxBatchSize;
+    private final Partition[] partitions;
+    private volatile boolean closed;
+
+    /**
+     * @param accountNumbers : accounts handled by the engine, every account if empty
+     * @param partitionCount : writer threads
+     * @param ringSize : events waiting at most in the ring of a partition, a power of two
+     * @param maxBatchSize : events committed together at most
+     * @param maxAccounts : accounts whose state the engine keeps at most, the least recently used ones are
+     * dropped beyond, and read again from the database by their next event
+     * @throws IllegalArgumentException if a setting is out of range
+     */
+    public LedgerEngine(InfrastructureRepository infrastructureRepository, HotAccountCache hotAccountCache,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${bank.ledger.accounts:}") Set<String> accountNumbers,
+                        @Value("${bank.ledger.partitions:4}") int partitionCount,
+                        @Value("${bank.ledger.ring-size:1024}") int ringSize,
+                        @Value("${bank.ledger.max-batch-size:256}") int maxBatchSize,
+                        @Value("${bank.ledger.max-accounts:100000}") int maxAccounts) {
+        if (partitionCount < 1 || maxBatchSize < 1 || maxAccounts < 1) {
+            throw new IllegalArgumentException("Invalid ledger settings: " + partitionCount + " partitions, batch size "
+                                               + maxBatchSize + ", " + maxAccounts + " accounts");
+        }
+        this.infrastructureRepository = infrastructureRepository;
+        this.hotAccountCache = hotAccountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountNumbers = Set.copyOf(accountNumbers);
+        this.maxBatchSize = maxBatchSize;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(ringSize, Math.max(1, maxAccounts / partitionCount));
+        }
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i].start("ledger-writer-" + i);
+        }
+    }
+
+    /**
+     * @return true if the deposits and withdrawals of the account go through the engine
+     */
+    public boolean owns(String accountNumber) {
+        return !closed && (accountNumbers.isEmpty() || accountNumbers.contains(accountNumber));
+    }
+
+    /**
+     * Deposit through the writer of the account, waiting for the commit of its batch
+     * @return the new balance
+     * @throws IllegalArgumentException if the amount is not positive
+     * @throws NoSuchElementException if the account does not exist
+     */
+    public BigDecimal deposit(String accountNumber, LocalDate date, BigDecimal amount) {
+        return submit(EventType.DEPOSIT, accountNumber, date, Money.of(amount), "Deposit");
+    }
+
+    /**
+     * Withdrawal through the writer of the account, waiting for the commit of its batch
+     * @return the new balance
+     * @throws IllegalArgumentException if the amount is not positive or greater than the balance and overdraw
+     * @throws NoSuchElementException if the account does not exist
+     */
+    public BigDecimal withdraw(String accountNumber, LocalDate date, BigDecimal amount, String label) {
+        return submit(EventType.WITHDRAWAL, accountNumber, date, Money.of(amount), label);
+    }
+
+    /**
+     * Last committed state of an account, read without waiting for the writer
+     * @return the snapshot, empty if the engine did not write the account yet
+     */
+    public Optional<AccountSnapshot> snapshot(String accountNumber) {
+        return Optional.ofNullable(partition(accountNumber).published.get(accountNumber));
+    }
+
+    /**
+     * Drop the state of an account changed outside of the engine : it is read again from the database by the
+     * next event. Returns once the writer dropped it, so a following read does not see the previous snapshot.
+     */
+    public void forget(String accountNumber) {
+        submit(EventType.FORGET, accountNumber, null, null, null);
+    }
+
+    /**
+     * Stops the writers, the events still in the rings fail
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Partition partition : partitions) {
+            partition.writer.interrupt();
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                partition.ring.close();
+            }
+        }
+    }
+
+    /**
+     * A caller which passed the first check while the engine was closing may publish its event after the writer
+     * failed the events of its ring : once the writer is over, the event fails unless the writer completed it
+     */
+    private BigDecimal submit(EventType type, String accountNumber, LocalDate date, Money amount, String label) {
+        if (closed) {
+            throw new IllegalStateException("The ledger engine is closed");
+        }
+        Partition partition = partition(accountNumber);
+        CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+        long sequence;
+        try {
+            sequence = partition.ring.next();
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("The ledger engine is closed", e);
+        }
+        partition.ring.get(sequence).set(type, accountNumber, date, amount, label, result);
+        partition.ring.publish(sequence);
+        if (closed) {
+            try {
+                partition.writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            result.completeExceptionally(new IllegalStateException("The ledger engine is closed"));
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Partition partition(String accountNumber) {
+        return partitions[Math.floorMod(accountNumber.hashCode(), partitions.length)];
+    }
+
+    private enum EventType {
+        DEPOSIT, WITHDRAWAL, FORGET
+    }
+
+    /**
+     * Preallocated slot of a ring : filled by the caller, then read and completed by the writer
+     */
+    private static final class LedgerEvent {
+
+        private EventType type;
+        private String accountNumber;
+        private LocalDate date;
+        private Money amount;
+        private String label;
+        private CompletableFuture<BigDecimal> result;
+        private BigDecimal balance;
+        private RuntimeException error;
+
+        private void set(EventType type, String accountNumber, LocalDate date, Money amount, String label,
+                         CompletableFuture<BigDecimal> result) {
+            this.type = type;
+            this.accountNumber = accountNumber;
+            this.date = date;
+            this.amount = amount;
+            this.label = label;
+            this.result = result;
+        }
+
+        private void succeed(BigDecimal balance) {
+            this.balance = balance;
+            this.error = null;
+        }
+
+        private void fail(RuntimeException error) {
+            this.balance = null;
+            this.error = error;
+        }
+
+        /**
+         * Hands the outcome over to the caller and empties the slot for its next use
+         */
+        private void complete() {
+            CompletableFuture<BigDecimal> completed = result;
+            BigDecimal completedBalance = balance;
+            RuntimeException completedError = error;
+            set(null, null, null, null, null, null);
+            balance = null;
+            error = null;
+            if (completedError != null) {
+                completed.completeExceptionally(completedError);
+            } else {
+                completed.complete(completedBalance);
+            }
+        }
+    }
+
+    /**
+     * Accounts of a partition, their ring and their writer
+     */
+    private final class Partition implements Runnable {
+
+        private final RingBuffer<LedgerEvent> ring;
+        // last committed state of the accounts, only used by the writer, least recently used first
+        private final Map<String, AccountSnapshot> states;
+        // same states, published for the readers
+        private final Map<String, AccountSnapshot> published = new ConcurrentHashMap<>();
+        private Thread writer;
+
+        private Partition(int ringSize, int maxAccounts) {
+            this.ring = new RingBuffer<>(ringSize, LedgerEvent::new);
+            this.states = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AccountSnapshot> eldest) {
+                    if (size() <= maxAccounts) {
+                        return false;
+                    }
+                    published.remove(eldest.getKey());
+                    return true;
+                }
+            };
+        }
+
+        private void start(String name) {
+            writer = new Thread(this, name);
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        @Override
+        public void run() {
+            List<LedgerEvent> batch = new ArrayList<>(maxBatchSize);
+            long next = 0;
+            while (true) {
+                long last;
+                try {
+                    last = ring.waitFor(next, maxBatchSize);
+                } catch (InterruptedException e) {
+                    failPublished(next);
+                    return;
+                }
+                for (long sequence = next; sequence <= last; sequence++) {
+                    batch.add(ring.get(sequence));
+                }
+                process(batch);
+                batch.forEach(LedgerEvent::complete);
+                batch.clear();
+                ring.release(last);
+                next = last + 1;
+            }
+        }
+
+        /**
+         * The accounts to forget are dropped first, so the movements of the batch read them again
+         */
+        private void process(List<LedgerEvent> batch) {
+            List<LedgerEvent> movements = new ArrayList<>(batch.size());
+            for (LedgerEvent event : batch) {
+                if (event.type == EventType.FORGET) {
+                    forget(event.accountNumber);
+                    event.succeed(null);
+                } else {
+                    movements.add(event);
+                }
+            }
+            if (movements.isEmpty()) {
+                return;
+            }
+            try {
+                if (commit(movements)) {
+                    return;
+                }
+                movements.forEach(event -> forget(event.accountNumber));
+                if (commit(movements)) {
+                    return;
+                }
+                movements.forEach(event -> event.fail(new OptimisticLockingFailureException(
+                    "The account " + event.accountNumber + " was changed outside of the ledger engine")));
+            } catch (RuntimeException e) {
+                LOGGER.error("Ledger batch of {} operations failed", movements.size(), e);
+                movements.forEach(event -> event.fail(e));
+            }
+            movements.forEach(event -> forget(event.accountNumber));
+        }
+
+        /**
+         * @return false if the database did not hold the balances the engine expected, and the batch rolled back
+         */
+        private boolean commit(List<LedgerEvent> movements) {
+            Map<String, AccountChanges> changes = new TreeMap<>();
+            for (LedgerEvent event : movements) {
+                AccountChanges account = changes.computeIfAbsent(event.accountNumber, this::load);
+                if (account == null) {
+                    event.fail(new NoSuchElementException("No account with the number " + event.accountNumber));
+                } else {
+                    account.apply(event);
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> changes.values().forEach(AccountChanges::write));
+            } catch (DivergedAccountException e) {
+                LOGGER.warn("Ledger batch rolled back: {}", e.getMessage());
+                return false;
+            }
+            changes.forEach((accountNumber, account) -> {
+                AccountSnapshot snapshot = AccountSnapshot.of(account.account);
+                states.put(accountNumber, snapshot);
+                published.put(accountNumber, snapshot);
+                hotAccountCache.evict(accountNumber);
+            });
+            return true;
+        }
+
+        private AccountChanges load(String accountNumber) {
+            AccountSnapshot state = states.get(accountNumber);
+            if (state == null) {
+                state = infrastructureRepository.findAccount(accountNumber)
+                    .map(accountEntity -> AccountSnapshot.of(accountEntity.toDomain()))
+                    .orElse(null);
+            }
+            return state == null ? null : new AccountChanges(state);
+        }
+
+        private void forget(String accountNumber) {
+            states.remove(accountNumber);
+            published.remove(accountNumber);
+        }
+
+        /**
+         * Failing the events left in the ring when the engine stops, so that no caller waits for ever
+         */
+        private void failPublished(long next) {
+            IllegalStateException closedError = new IllegalStateException("The ledger engine is closed");
+            long last = ring.lastPublished(next, ring.size());
+            for (long sequence = next; sequence <= last; sequence++) {
+                LedgerEvent event = ring.get(sequence);
+                event.fail(closedError);
+                event.complete();
+            }
+            ring.release(last);
+        }
+    }
+
+    /**
+     * Changes of a batch to one account, checked by a domain account starting from the last committed state
+     */
+    private final class AccountChanges {
+
+        private final Account account;
+        private final List<OperationEntity> accepted = new ArrayList<>();
+        private final Map<YearMonth, MonthlySummaryEntity> summaries = new LinkedHashMap<>();
+        private Money delta = Money.ZERO;
+
+        private AccountChanges(AccountSnapshot state) {
+            this.account = new Account(state.accountNumber(), state.balance());
+            this.account.setAccountType(state.accountType());
+            this.account.setAuthorizedOverdraw(state.authorizedOverdraw());
+            this.account.setOverdraw(state.overdraw());
+        }
+
+        private void apply(LedgerEvent event) {
+            Operation operation = new Operation(event.date, event.amount, event.label);
+            BigDecimal balance;
+            try {
+                if (event.type == EventType.DEPOSIT) {
+                    balance = account.deposit(event.date, event.amount).toBigDecimal();
+                    delta = delta.add(event.amount);
+                } else {
+                    balance = account.withdraw(event.date, event.amount, event.label).toBigDecimal();
+                    delta = delta.subtract(event.amount);
+                }
+            } catch (IllegalArgumentException e) {
+                event.fail(e);
+                return;
+            }
+            MonthlySummaryEntity summary = summaries.computeIfAbsent(YearMonth.from(operation.getDate()),
+                month -> MonthlySummaryEntity.of(account.getAccountNumber(), operation.getDate()));
+            if (event.type == EventType.DEPOSIT) {
+                summary.addDeposit(event.amount.toBigDecimal());
+            } else {
+                summary.addWithdrawal(event.amount.toBigDecimal());
+            }
+            accepted.add(new OperationEntity().fromDomain(operation));
+            event.succeed(balance);
+        }
+
+        /**
+         * One conditional update of the balance by the net change, checked against the balance the engine expects
+         */
+        private void write() {
+            if (accepted.isEmpty()) {
+                return;
+            }
+            String accountNumber = account.getAccountNumber();
+            Optional<BigDecimal> balance = infrastructureRepository.applyBalanceChange(accountNumber, delta.toBigDecimal());
+            if (balance.isEmpty() || balance.get().compareTo(account.getBalance()) != 0) {
+                throw new DivergedAccountException(accountNumber);
+            }
+            infrastructureRepository.saveOperations(accountNumber, accepted);
+            summaries.values().forEach(infrastructureRepository::addToMonthlySummary);
+        }
+    }
+
+    private static final class DivergedAccountException extends RuntimeException {
+
+        private DivergedAccountException(String accountNumber) {
+            super("The balance of the account " + accountNumber + " is not the one of the ledger engine");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bank.infrastructure.ledger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Bounded ring of preallocated slots between many producers and a single consumer.
+ * A producer claims the next sequence, fills the slot of the sequence and publishes it ; the consumer reads
+ * the published slots in sequence order and releases them once it is done with them. The slots are reused,
+ * nothing is allocated per event, and the only contended write is the claim of a sequence.
+ * A full ring makes the producers wait for the consumer, an empty ring makes the consumer spin a little, then park.
+ */
+public class RingBuffer<E> {
+
+    private static final int SPINS = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Object[] slots;
+    private final int mask;
+    private final int indexShift;
+    // round (sequence / size) of the last sequence published in each slot
+    private final AtomicIntegerArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long released = -1;
+    private volatile Thread waitingConsumer;
+    private volatile boolean closed;
+
+    /**
+     * @param size : number of slots, a power of two
+     * @param factory : creates the slots, once
+     * @throws IllegalArgumentException if the size is not a power of two
+     */
+    public RingBuffer(int size, Supplier<E> factory) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("The size of a ring buffer must be a power of two: " + size);
+        }
+        this.slots = new Object[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = factory.get();
+        }
+        this.mask = size - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(size);
+        this.published = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * Claim the next sequence, waiting while the ring is full
+     * @return the sequence, whose slot belongs to the caller until it is published
+     * @throws IllegalStateException if the ring is closed, as no slot will be released any more
+     */
+    public long next() {
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - slots.length;
+        while (wrapPoint > released) {
+            if (closed) {
+                throw new IllegalStateException("The ring buffer is closed");
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return sequence;
+    }
+
+    /**
+     * The consumer stopped : the producers waiting for a slot give up
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Slot of a sequence : written by the producer which claimed it, then read by the consumer
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Hand the slot of a claimed sequence over to the consumer
+     */
+    public void publish(long sequence) {
+        published.set((int) sequence & mask, (int) (sequence >>> indexShift));
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Wait until the sequence is published (consumer side)
+     * @param maxCount : sequences returned at most
+     * @return the last published sequence of the run starting at the sequence, at most sequence + maxCount - 1
+     * @throws InterruptedException if the consumer is interrupted while waiting
+     */
+    public long waitFor(long sequence, int maxCount) throws InterruptedException {
+        int spins = 0;
+        while (!isPublished(sequence)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            waitingConsumer = Thread.currentThread();
+            if (!isPublished(sequence)) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            waitingConsumer = null;
+        }
+        return lastPublished(sequence, maxCount);
+    }
+
+    /**
+     * Without waiting (consumer side)
+     * @param maxCount : sequences returned at most
+     * @return the last published sequence of the run starting at the sequence, sequence - 1 if it is not published
+     */
+    public long lastPublished(long sequence, int maxCount) {
+        long last = sequence - 1;
+        long limit = sequence + maxCount - 1;
+        while (last < limit && isPublished(last + 1)) {
+            last++;
+        }
+        return last;
+    }
+
+    /**
+     * Give the slots up to a sequence back to the producers (consumer side)
+     */
+    public void release(long sequence) {
+        released = sequence;
+    }
+
+    private boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+}
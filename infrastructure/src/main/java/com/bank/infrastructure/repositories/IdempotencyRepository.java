@@ -0,0 +1,46 @@
+package com.bank.infrastructure.repositories;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import com.bank.infrastructure.cache.StoredResponse;
+
+/**
+ * Persisted idempotency keys : a key is reserved in the transaction of its request and completed with
+ * the response, so a retried request finds the response instead of running again
+ */
+public interface IdempotencyRepository {
+
+    /**
+     * Reserve a key for a request, in the current transaction. A concurrent reservation of the same key
+     * waits until the transaction holding it ends.
+     * @param key
+     * @param fingerprint : hash of the request
+     * @param now
+     * @param expiredBefore : a key reserved before is expired and can be reserved again
+     * @return true if the key was reserved, false if it is already used
+     */
+    boolean reserve(String key, String fingerprint, Instant now, Instant expiredBefore);
+
+    /**
+     * Record the response of a reserved key, in the current transaction
+     * @param key
+     * @param response
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Get the response of a key
+     * @param key
+     * @param expiredBefore
+     * @return the response, or empty if the key is unknown, expired or its request did not complete
+     */
+    Optional<StoredResponse> find(String key, Instant expiredBefore);
+
+    /**
+     * Delete the expired keys
+     * @param expiredBefore
+     * @return number of keys deleted
+     */
+    int deleteExpired(Instant expiredBefore);
+}
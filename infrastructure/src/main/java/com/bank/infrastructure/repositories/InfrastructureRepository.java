@@ -1,29 +1,105 @@
 package com.bank.infrastructure.repositories;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
 import com.bank.infrastructure.entities.OperationEntity;
 import java.util.Optional;
 
 public interface InfrastructureRepository {
     /**
-     * Get the only account injected via liquibase
-     * @return default account
+     * Get an account by its account number
+     * @param accountNumber
+     * @return the account, or empty if it does not exist
      */
-    Optional<AccountEntity> findDefaultAccount();
+    Optional<AccountEntity> findAccount(String accountNumber);
 
     /**
-     * Update the default account in the database
+     * Get an account and lock its row until the end of the transaction
+     * @param accountNumber
+     * @return the account, or empty if it does not exist
+     */
+    Optional<AccountEntity> findAccountForUpdate(String accountNumber);
+
+    /**
+     * Update an account in the database
      * @param accountEntity
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the account changed since it was read
      */
     void save(AccountEntity accountEntity);
 
+    /**
+     * Atomically adds a (signed) amount to the balance of an account : a deposit is always accepted,
+     * a withdrawal as long as the resulting balance stays above the authorized overdraw
+     * @param accountNumber
+     * @param delta : positive for a deposit, negative for a withdrawal
+     * @return the new balance, or empty if the account does not exist or the guard rejected the change
+     */
+    Optional<BigDecimal> applyBalanceChange(String accountNumber, BigDecimal delta);
 
     /**
-     * Gets the operation within a month
+     * Insert a new operation for an account : a plain insert into the operation table, the account and
+     * its other operations are neither loaded nor locked
+     * @param accountNumber
+     * @param operationEntity
+     */
+    void saveOperation(String accountNumber, OperationEntity operationEntity);
+
+    /**
+     * Insert many operations for an account, sent to the database as JDBC batches
+     * @param accountNumber
+     * @param operationEntities
+     */
+    void saveOperations(String accountNumber, List<OperationEntity> operationEntities);
+
+
+    /**
+     * Gets the operations of an account within a month, most recent first
+     * @param accountNumber
+     * @param month : 1 to 12
+     * @param year
      * @return list of  monthly operation
      */
-    List<OperationEntity> findOperationsByMonthAndYear();
-    
+    List<OperationEntity> findOperationsByMonthAndYear(String accountNumber, int month, int year);
+
+    /**
+     * Hand over the operations of an account between two dates one at a time, oldest first, without
+     * keeping them : must be called within a transaction, which keeps the cursor open
+     * @param accountNumber
+     * @param from : first day, included
+     * @param to : last day, included
+     * @param consumer : called for each operation, in (date, operation id) order
+     * @return the number of operations
+     */
+    long forEachOperation(String accountNumber, LocalDate from, LocalDate to, Consumer<OperationEntity> consumer);
+
+    /**
+     * Gets a page of the operations of an account, most recent first in (date, operation id) order
+     * @param accountNumber
+     * @param beforeDate : date of the last operation of the previous page, or null for the first page
+     * @param beforeOperationId : id of the last operation of the previous page, or null for the first page
+     * @param limit : maximum number of operations
+     * @return the operations strictly before the given one
+     */
+    List<OperationEntity> findOperationsBefore(String accountNumber, LocalDate beforeDate, Long beforeOperationId, int limit);
+
+    /**
+     * Add the operations of a delta to the summary of its month, creating the summary if needed
+     * @param summaryDelta : counts and totals to add, the closing balance is derived when the summary is read
+     */
+    void addToMonthlySummary(MonthlySummaryEntity summaryDelta);
+
+    /**
+     * Gets the summary of the operations of an account within a month
+     * @param accountNumber
+     * @param month : 1 to 12
+     * @param year
+     * @return the summary, or empty if there is no operation in the month
+     */
+    Optional<MonthlySummaryEntity> findMonthlySummary(String accountNumber, int month, int year);
+
 }
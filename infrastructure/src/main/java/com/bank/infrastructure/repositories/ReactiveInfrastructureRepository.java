@@ -0,0 +1,68 @@
+package com.bank.infrastructure.repositories;
+
+import java.math.BigDecimal;
+
+import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
+import com.bank.infrastructure.entities.OperationEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of InfrastructureRepository : every method returns at once, and the result
+ * is published once the storage answered, without holding a thread in between
+ */
+public interface ReactiveInfrastructureRepository {
+    /**
+     * Get an account by its account number
+     * @param accountNumber
+     * @return the account, or empty if it does not exist
+     */
+    Mono<AccountEntity> findAccount(String accountNumber);
+
+    /**
+     * Update an account, as long as its version did not change since it was read
+     * @param accountEntity
+     * @return completes, or errors with an OptimisticLockingFailureException if the account changed
+     */
+    Mono<Void> save(AccountEntity accountEntity);
+
+    /**
+     * Atomically adds a (signed) amount to the balance of an account : a deposit is always accepted,
+     * a withdrawal as long as the resulting balance stays above the authorized overdraw
+     * @param accountNumber
+     * @param delta : positive for a deposit, negative for a withdrawal
+     * @return the new balance, or empty if the account does not exist or the guard rejected the change
+     */
+    Mono<BigDecimal> applyBalanceChange(String accountNumber, BigDecimal delta);
+
+    /**
+     * Insert a new operation for an account
+     * @param accountNumber
+     * @param operationEntity
+     */
+    Mono<Void> saveOperation(String accountNumber, OperationEntity operationEntity);
+
+    /**
+     * Add the operations of a delta to the summary of its month, creating the summary if needed
+     * @param summaryDelta
+     */
+    Mono<Void> addToMonthlySummary(MonthlySummaryEntity summaryDelta);
+
+    /**
+     * Gets the operations of an account within a month, most recent first
+     * @param accountNumber
+     * @param month : 1 to 12
+     * @param year
+     * @return the operations
+     */
+    Flux<OperationEntity> findOperationsByMonthAndYear(String accountNumber, int month, int year);
+
+    /**
+     * Run the writes of a publisher as one transaction
+     * @param work
+     * @return the result of the work, once committed
+     */
+    <T> Mono<T> inTransaction(Mono<T> work);
+}
@@ -0,0 +1,73 @@
+package com.bank.infrastructure.repositories.implementation;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.bank.infrastructure.cache.StoredResponse;
+import com.bank.infrastructure.repositories.IdempotencyRepository;
+
+/**
+ * Idempotency keys in the idempotency_key table
+ */
+@Repository
+@Profile("!journal")
+public class IdempotencyRepositoryImp implements IdempotencyRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * INSERT ... ON CONFLICT : the primary key makes a concurrent request with the same key wait for the
+     * first one, and an expired key is taken over by the same statement
+     */
+    @Override
+    public boolean reserve(String key, String fingerprint, Instant now, Instant expiredBefore) {
+        String sql = "INSERT INTO idempotency_key (idempotency_key, fingerprint, status, response_body, created_at) "
+                   + "VALUES (:key, :fingerprint, NULL, NULL, :now) "
+                   + "ON CONFLICT (idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, status = NULL, "
+                   + "response_body = NULL, created_at = EXCLUDED.created_at "
+                   + "WHERE idempotency_key.created_at < :expiredBefore";
+        return entityManager.createNativeQuery(sql)
+                .setParameter("key", key)
+                .setParameter("fingerprint", fingerprint)
+                .setParameter("now", Timestamp.from(now))
+                .setParameter("expiredBefore", Timestamp.from(expiredBefore))
+                .executeUpdate() == 1;
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        entityManager.createNativeQuery("UPDATE idempotency_key SET status = :status, response_body = :body WHERE idempotency_key = :key")
+                .setParameter("status", response.status())
+                .setParameter("body", response.body())
+                .setParameter("key", key)
+                .executeUpdate();
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key, Instant expiredBefore) {
+        List<?> result = entityManager.createNativeQuery("SELECT fingerprint, status, response_body FROM idempotency_key "
+                                                       + "WHERE idempotency_key = :key AND status IS NOT NULL AND created_at >= :expiredBefore")
+                .setParameter("key", key)
+                .setParameter("expiredBefore", Timestamp.from(expiredBefore))
+                .getResultList();
+        return result.stream().findFirst().map(row -> {
+            Object[] columns = (Object[]) row;
+            return new StoredResponse((String) columns[0], ((Number) columns[1]).intValue(), (String) columns[2]);
+        });
+    }
+
+    @Override
+    public int deleteExpired(Instant expiredBefore) {
+        return entityManager.createNativeQuery("DELETE FROM idempotency_key WHERE created_at < :expiredBefore")
+                .setParameter("expiredBefore", Timestamp.from(expiredBefore))
+                .executeUpdate();
+    }
+}
@@ -1,10 +1,23 @@
 package com.bank.infrastructure.repositories.implementation;
 
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,34 +25,237 @@ import java.util.Optional;
 
 import com.bank.infrastructure.repositories.InfrastructureRepository;
 import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
 import com.bank.infrastructure.entities.OperationEntity;
 
+/**
+ * Database adapter, used unless the journal profile replaces it by the journal adapter
+ */
 @Repository
+@Profile("!journal")
+@Timed(value = "bank.repository", histogram = true)
 public class InfrastructureRepositoryImp implements InfrastructureRepository {
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final OperationLabelStore operationLabelStore;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${bank.export.fetch-size:500}")
+    private int fetchSize;
+
+    public InfrastructureRepositoryImp(OperationLabelStore operationLabelStore) {
+        this.operationLabelStore = operationLabelStore;
+    }
+
     @Override
-    public Optional<AccountEntity> findDefaultAccount() {
-        String jpql = "SELECT a FROM AccountEntity a";
-        return Optional.ofNullable(entityManager.createQuery(jpql, AccountEntity.class).getSingleResult());
+    public Optional<AccountEntity> findAccount(String accountNumber) {
+        return Optional.ofNullable(entityManager.find(AccountEntity.class, accountNumber));
     }
 
+    @Override
+    public Optional<AccountEntity> findAccountForUpdate(String accountNumber) {
+        return Optional.ofNullable(entityManager.find(AccountEntity.class, accountNumber, LockModeType.PESSIMISTIC_WRITE));
+    }
+
+    /**
+     * Flushing right away runs the version check of the account now rather than at commit time
+     */
     @Override
     public void save(AccountEntity account) {
         entityManager.merge(account);
+        entityManager.flush();
+    }
+
+    /**
+     * Single conditional UPDATE ... RETURNING : the guard and the write happen in the same statement,
+     * so concurrent calls can neither lose an update nor overdraw the account. Only a withdrawal is guarded :
+     * a deposit is accepted even on an account already beyond its overdraw, like Account.deposit
+     */
+    @Override
+    public Optional<BigDecimal> applyBalanceChange(String accountNumber, BigDecimal delta) {
+        String sql = "UPDATE account SET balance = balance + :delta, version = version + 1 "
+                   + "WHERE account_number = :accountNumber "
+                   + "AND (:delta >= 0 OR balance + COALESCE(authorized_overdraw, 0) + :delta >= 0) "
+                   + "RETURNING balance";
+        List<?> result = entityManager.createNativeQuery(sql)
+                .setParameter("delta", delta)
+                .setParameter("accountNumber", accountNumber)
+                .getResultList();
+        return result.stream().findFirst().map(BigDecimal.class::cast);
+    }
+
+    @Override
+    public void saveOperation(String accountNumber, OperationEntity operationEntity) {
+        operationEntity.setAccountNumber(accountNumber);
+        operationEntity.setLabelId(operationLabelStore.idOf(operationEntity.getLabel()));
+        entityManager.persist(operationEntity);
+    }
+
+    /**
+     * Flushing every batchSize operations sends one JDBC batch at a time, and detaching the flushed
+     * operations keeps the persistence context small however many operations are written.
+     * The labels are resolved first, once each and in a fixed order, so concurrent batches inserting
+     * the same new labels wait for each other instead of deadlocking.
+     */
+    @Override
+    public void saveOperations(String accountNumber, List<OperationEntity> operationEntities) {
+        Map<String, Integer> labelIds = new TreeMap<>();
+        for (OperationEntity operationEntity : operationEntities) {
+            if (operationEntity.getLabel() != null) {
+                labelIds.put(operationEntity.getLabel(), null);
+            }
+        }
+        labelIds.replaceAll((label, id) -> operationLabelStore.idOf(label));
+
+        int pending = 0;
+        for (int i = 0; i < operationEntities.size(); i++) {
+            OperationEntity operationEntity = operationEntities.get(i);
+            operationEntity.setAccountNumber(accountNumber);
+            operationEntity.setLabelId(operationEntity.getLabel() == null ? null : labelIds.get(operationEntity.getLabel()));
+            entityManager.persist(operationEntity);
+
+            if (++pending == batchSize) {
+                flushAndDetach(operationEntities.subList(i + 1 - pending, i + 1));
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            flushAndDetach(operationEntities.subList(operationEntities.size() - pending, operationEntities.size()));
+        }
+    }
+
+    private void flushAndDetach(List<OperationEntity> flushed) {
+        entityManager.flush();
+        flushed.forEach(entityManager::detach);
+    }
+
+    /**
+     * Half-open date range [first day of the month, first day of the next month) so the
+     * (account_number, date) index can be used as a range scan
+     */
+    @Override
+    public List<OperationEntity> findOperationsByMonthAndYear(String accountNumber, int month, int year) {
+        LocalDate start = LocalDate.of(year, month, 1);
+        LocalDate end = start.plusMonths(1);
+
+        String jpql = "SELECT o FROM OperationEntity o "
+                    + "WHERE o.accountNumber = :accountNumber "
+                    + "AND o.date >= :start AND o.date < :end "
+                    + "ORDER BY o.date DESC";
+        return resolveLabels(entityManager.createQuery(jpql, OperationEntity.class)
+                .setParameter("accountNumber", accountNumber)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList());
+    }
+
+    /**
+     * Forward-only cursor fetching fetchSize rows at a time (the PostgreSQL driver only uses a cursor
+     * inside a transaction). Each operation is detached once handed over, so the persistence context
+     * stays empty whatever the number of rows.
+     */
+    @Override
+    public long forEachOperation(String accountNumber, LocalDate from, LocalDate to, Consumer<OperationEntity> consumer) {
+        String jpql = "SELECT o FROM OperationEntity o "
+                    + "WHERE o.accountNumber = :accountNumber "
+                    + "AND o.date >= :start AND o.date < :end "
+                    + "ORDER BY o.date, o.operationId";
+        long count = 0;
+        try (Stream<OperationEntity> operations = entityManager.createQuery(jpql, OperationEntity.class)
+                .setParameter("accountNumber", accountNumber)
+                .setParameter("start", from)
+                .setParameter("end", to.plusDays(1))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<OperationEntity> iterator = operations.iterator();
+            while (iterator.hasNext()) {
+                OperationEntity operationEntity = iterator.next();
+                operationEntity.setLabel(operationLabelStore.labelOf(operationEntity.getLabelId()));
+                consumer.accept(operationEntity);
+                entityManager.detach(operationEntity);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Keyset pagination : the row comparison (date, operation_id) < (:date, :id) seeks straight into the
+     * (account_number, date, operation_id) index, so a deep page costs the same as the first one
+     */
+    @Override
+    public List<OperationEntity> findOperationsBefore(String accountNumber, LocalDate beforeDate, Long beforeOperationId, int limit) {
+        String sql = "SELECT * FROM operation WHERE account_number = :accountNumber "
+                   + (beforeDate == null ? "" : "AND (date, operation_id) < (:date, :operationId) ")
+                   + "ORDER BY date DESC, operation_id DESC "
+                   + "LIMIT :limit";
+        Query query = entityManager.createNativeQuery(sql, OperationEntity.class)
+                .setParameter("accountNumber", accountNumber)
+                .setParameter("limit", limit);
+        if (beforeDate != null) {
+            query.setParameter("date", beforeDate).setParameter("operationId", beforeOperationId);
+        }
+        @SuppressWarnings("unchecked")
+        List<OperationEntity> operations = query.getResultList();
+        return resolveLabels(operations);
+    }
+
+    private List<OperationEntity> resolveLabels(List<OperationEntity> operations) {
+        operations.forEach(operation -> operation.setLabel(operationLabelStore.labelOf(operation.getLabelId())));
+        return operations;
+    }
+
+    /**
+     * Single INSERT ... ON CONFLICT DO UPDATE : concurrent operations of the same month add up in the
+     * database instead of overwriting each other
+     */
+    @Override
+    public void addToMonthlySummary(MonthlySummaryEntity summaryDelta) {
+        String sql = "INSERT INTO monthly_summary (account_number, summary_year, summary_month, deposit_count, "
+                   + "withdrawal_count, total_deposits, total_withdrawals) "
+                   + "VALUES (:accountNumber, :year, :month, :depositCount, :withdrawalCount, :totalDeposits, :totalWithdrawals) "
+                   + "ON CONFLICT (account_number, summary_year, summary_month) DO UPDATE SET "
+                   + "deposit_count = monthly_summary.deposit_count + EXCLUDED.deposit_count, "
+                   + "withdrawal_count = monthly_summary.withdrawal_count + EXCLUDED.withdrawal_count, "
+                   + "total_deposits = monthly_summary.total_deposits + EXCLUDED.total_deposits, "
+                   + "total_withdrawals = monthly_summary.total_withdrawals + EXCLUDED.total_withdrawals";
+        entityManager.createNativeQuery(sql)
+                .setParameter("accountNumber", summaryDelta.getAccountNumber())
+                .setParameter("year", summaryDelta.getYear())
+                .setParameter("month", summaryDelta.getMonth())
+                .setParameter("depositCount", summaryDelta.getDepositCount())
+                .setParameter("withdrawalCount", summaryDelta.getWithdrawalCount())
+                .setParameter("totalDeposits", summaryDelta.getTotalDeposits())
+                .setParameter("totalWithdrawals", summaryDelta.getTotalWithdrawals())
+                .executeUpdate();
     }
 
+    /**
+     * The closing balance is the balance of the account less the net change of the later months, read in the
+     * same statement as the summary
+     */
     @Override
-    public List<OperationEntity> findOperationsByMonthAndYear() {
-        String jpql = "SELECT o FROM OperationEntity o";
-        return entityManager.createQuery(jpql, OperationEntity.class)
-                .getResultList()
-                .stream()
-                .filter(op -> op.getDate().getMonthValue() == java.time.LocalDate.now().getMonthValue()
-                           && op.getDate().getYear() == java.time.LocalDate.now().getYear())
-                .toList();
+    public Optional<MonthlySummaryEntity> findMonthlySummary(String accountNumber, int month, int year) {
+        String sql = "SELECT m.deposit_count, m.withdrawal_count, m.total_deposits, m.total_withdrawals, "
+                   + "a.balance - (SELECT COALESCE(SUM(l.total_deposits - l.total_withdrawals), 0) FROM monthly_summary l "
+                   + "WHERE l.account_number = m.account_number "
+                   + "AND (l.summary_year, l.summary_month) > (m.summary_year, m.summary_month)) "
+                   + "FROM monthly_summary m JOIN account a ON a.account_number = m.account_number "
+                   + "WHERE m.account_number = :accountNumber AND m.summary_year = :year AND m.summary_month = :month";
+        List<?> result = entityManager.createNativeQuery(sql)
+                .setParameter("accountNumber", accountNumber)
+                .setParameter("year", year)
+                .setParameter("month", month)
+                .getResultList();
+        return result.stream().findFirst().map(Object[].class::cast)
+            .map(row -> new MonthlySummaryEntity(accountNumber, year, month,
+                                                 ((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                                                 (BigDecimal) row[2], (BigDecimal) row[3], (BigDecimal) row[4]));
     }
 
 }
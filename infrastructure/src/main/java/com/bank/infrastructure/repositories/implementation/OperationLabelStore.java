@@ -0,0 +1,94 @@
+package com.bank.infrastructure.repositories.implementation;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.domain.LabelDictionary;
+
+/**
+ * Ids of the operation labels, stored in the operation_label table and kept in memory in a LabelDictionary.
+ * A label seen for the first time is inserted in the transaction of its operation, and only enters the
+ * dictionary once that transaction committed : a rolled back label is never handed to another operation.
+ * The dictionary is bounded : the labels beyond its capacity are read from the table each time.
+ */
+@Component
+@Profile("!journal")
+public class OperationLabelStore {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final LabelDictionary labelDictionary;
+
+    public OperationLabelStore(@Value("${bank.labels.max-size:10000}") int maxSize) {
+        this.labelDictionary = new LabelDictionary(maxSize);
+    }
+
+    /**
+     * Calling entityManager to get the id of a label, inserting the label if it is new
+     * @return the id, or null for a null label
+     */
+    public Integer idOf(String label) {
+        if (label == null) {
+            return null;
+        }
+        int known = labelDictionary.idOf(label);
+        if (known != LabelDictionary.NO_LABEL) {
+            return known;
+        }
+        // A concurrent insert of the same label waits for the other transaction, then finds its row
+        entityManager.createNativeQuery("INSERT INTO operation_label (label_id, label) "
+                                      + "VALUES (nextval('operation_label_seq'), :label) ON CONFLICT (label) DO NOTHING")
+                .setParameter("label", label)
+                .executeUpdate();
+        int id = ((Number) entityManager.createNativeQuery("SELECT label_id FROM operation_label WHERE label = :label")
+                .setParameter("label", label)
+                .getSingleResult()).intValue();
+        registerAfterCommit(id, label);
+        return id;
+    }
+
+    /**
+     * Calling entityManager to get the label of an id, read once then served from memory
+     * @return the label, or null for a null id
+     */
+    public String labelOf(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String known = labelDictionary.label(id);
+        if (known != null) {
+            return known;
+        }
+        List<?> result = entityManager.createNativeQuery("SELECT label FROM operation_label WHERE label_id = :id")
+                .setParameter("id", id)
+                .getResultList();
+        if (result.isEmpty()) {
+            throw new IllegalStateException("No operation label with the id " + id);
+        }
+        String label = (String) result.get(0);
+        labelDictionary.register(id, label);
+        return label;
+    }
+
+    private void registerAfterCommit(int id, String label) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            labelDictionary.register(id, label);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                labelDictionary.register(id, label);
+            }
+        });
+    }
+}
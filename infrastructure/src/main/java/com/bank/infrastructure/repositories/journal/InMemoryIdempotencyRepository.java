@@ -0,0 +1,79 @@
+package com.bank.infrastructure.repositories.journal;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.infrastructure.cache.StoredResponse;
+import com.bank.infrastructure.repositories.IdempotencyRepository;
+
+/**
+ * Idempotency keys of the journal profile, kept in memory only : they do not survive a restart.
+ * A reservation is undone when its transaction rolls back, as the database adapter does, but a concurrent
+ * reservation of the same key fails at once instead of waiting.
+ */
+@Repository
+@Profile("journal")
+public class InMemoryIdempotencyRepository implements IdempotencyRepository {
+
+    private record Reservation(long id, String fingerprint, Instant createdAt, StoredResponse response) {
+    }
+
+    private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+
+    @Override
+    public boolean reserve(String key, String fingerprint, Instant now, Instant expiredBefore) {
+        Reservation reservation = new Reservation(reservationIds.incrementAndGet(), fingerprint, now, null);
+        boolean[] reserved = new boolean[1];
+        reservations.compute(key, (k, existing) -> {
+            if (existing == null || existing.createdAt().isBefore(expiredBefore)) {
+                reserved[0] = true;
+                return reservation;
+            }
+            return existing;
+        });
+        if (reserved[0] && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reservations.computeIfPresent(key, (k, existing) -> existing.id() == reservation.id() ? null : existing);
+                    }
+                }
+            });
+        }
+        return reserved[0];
+    }
+
+    /**
+     * The completed reservation keeps the id of the reservation, so a rollback still finds and removes it
+     */
+    @Override
+    public void complete(String key, StoredResponse response) {
+        reservations.computeIfPresent(key, (k, existing) -> new Reservation(existing.id(), existing.fingerprint(), existing.createdAt(), response));
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key, Instant expiredBefore) {
+        Reservation reservation = reservations.get(key);
+        if (reservation == null || reservation.response() == null || reservation.createdAt().isBefore(expiredBefore)) {
+            return Optional.empty();
+        }
+        return Optional.of(reservation.response());
+    }
+
+    @Override
+    public int deleteExpired(Instant expiredBefore) {
+        int before = reservations.size();
+        reservations.values().removeIf(reservation -> reservation.createdAt().isBefore(expiredBefore));
+        return before - reservations.size();
+    }
+}
@@ -0,0 +1,197 @@
+package com.bank.infrastructure.repositories.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import com.bank.domain.enums.AccountType;
+
+/**
+ * Binary payloads of the journal records.
+ * An ACCOUNT record is the whole state of an account, a BALANCE record a balance change,
+ * an OPERATION record a new operation of an account and a SUMMARY record the new summary of a month.
+ * A LEGACY_SUMMARY record is a summary written before the closing balance was derived when read : it
+ * ends with the closing balance of the month, a nullable decimal which is read and ignored.
+ * The records of a transaction are written between a BEGIN and a COMMIT record, both holding the number
+ * of records of the transaction. A ROLLBACK record closes a transaction torn by a crash.
+ */
+final class JournalCodec {
+
+    static final byte ACCOUNT = 1;
+    static final byte BALANCE = 2;
+    static final byte OPERATION = 3;
+    static final byte LEGACY_SUMMARY = 4;
+    static final byte BEGIN = 5;
+    static final byte COMMIT = 6;
+    static final byte ROLLBACK = 7;
+    static final byte SUMMARY = 8;
+
+    private JournalCodec() {
+    }
+
+    record AccountRecord(String accountNumber, AccountType accountType, BigDecimal balance,
+                         BigDecimal authorizedOverdraw, BigDecimal overdraw, long version) {
+    }
+
+    record BalanceRecord(String accountNumber, BigDecimal balance, long version) {
+    }
+
+    record OperationRecord(String accountNumber, LocalDate date, BigDecimal amount, String label) {
+    }
+
+    record SummaryRecord(String accountNumber, int year, int month, long depositCount, long withdrawalCount,
+                         BigDecimal totalDeposits, BigDecimal totalWithdrawals) {
+    }
+
+    static byte[] encode(AccountRecord account) {
+        return write(out -> {
+            out.writeUTF(account.accountNumber());
+            writeNullableString(out, account.accountType() == null ? null : account.accountType().name());
+            writeDecimal(out, account.balance());
+            writeNullableDecimal(out, account.authorizedOverdraw());
+            writeNullableDecimal(out, account.overdraw());
+            out.writeLong(account.version());
+        });
+    }
+
+    static byte[] encode(BalanceRecord balance) {
+        return write(out -> {
+            out.writeUTF(balance.accountNumber());
+            writeDecimal(out, balance.balance());
+            out.writeLong(balance.version());
+        });
+    }
+
+    static byte[] encode(OperationRecord operation) {
+        return write(out -> {
+            out.writeUTF(operation.accountNumber());
+            out.writeLong(operation.date().toEpochDay());
+            writeDecimal(out, operation.amount());
+            writeNullableString(out, operation.label());
+        });
+    }
+
+    static byte[] encode(SummaryRecord summary) {
+        return write(out -> {
+            out.writeUTF(summary.accountNumber());
+            out.writeInt(summary.year());
+            out.writeByte(summary.month());
+            out.writeLong(summary.depositCount());
+            out.writeLong(summary.withdrawalCount());
+            writeDecimal(out, summary.totalDeposits());
+            writeDecimal(out, summary.totalWithdrawals());
+        });
+    }
+
+    static byte[] encodeCount(int count) {
+        return write(out -> out.writeInt(count));
+    }
+
+    static int decodeCount(ByteBuffer payload) {
+        return payload.getInt(payload.position());
+    }
+
+    static AccountRecord decodeAccount(ByteBuffer payload) throws IOException {
+        DataInput in = input(payload);
+        String accountNumber = in.readUTF();
+        String accountType = readNullableString(in);
+        return new AccountRecord(accountNumber,
+                                 accountType == null ? null : AccountType.valueOf(accountType),
+                                 readDecimal(in),
+                                 readNullableDecimal(in),
+                                 readNullableDecimal(in),
+                                 in.readLong());
+    }
+
+    static BalanceRecord decodeBalance(ByteBuffer payload) throws IOException {
+        DataInput in = input(payload);
+        return new BalanceRecord(in.readUTF(), readDecimal(in), in.readLong());
+    }
+
+    static OperationRecord decodeOperation(ByteBuffer payload) throws IOException {
+        DataInput in = input(payload);
+        return new OperationRecord(in.readUTF(), LocalDate.ofEpochDay(in.readLong()), readDecimal(in), readNullableString(in));
+    }
+
+    static SummaryRecord decodeSummary(ByteBuffer payload) throws IOException {
+        return readSummary(input(payload));
+    }
+
+    static SummaryRecord decodeLegacySummary(ByteBuffer payload) throws IOException {
+        DataInput in = input(payload);
+        SummaryRecord summary = readSummary(in);
+        readNullableDecimal(in);
+        return summary;
+    }
+
+    private static SummaryRecord readSummary(DataInput in) throws IOException {
+        return new SummaryRecord(in.readUTF(), in.readInt(), in.readUnsignedByte(), in.readLong(), in.readLong(),
+                                 readDecimal(in), readDecimal(in));
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeNullableDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeDecimal(out, value);
+        }
+    }
+
+    private static BigDecimal readNullableDecimal(DataInput in) throws IOException {
+        return in.readBoolean() ? readDecimal(in) : null;
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static DataInput input(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    private static byte[] write(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutput out) throws IOException;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.infrastructure.repositories.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Beans of the journal profile, which replaces the database by a memory-mapped journal file
+ * and snapshots the accounts periodically
+ */
+@Configuration
+@EnableScheduling
+@Profile("journal")
+public class JournalConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public OperationJournal operationJournal(@Value("${bank.journal.path:bank.journal}") Path path,
+                                             @Value("${bank.journal.region-size:67108864}") int regionSize,
+                                             @Value("${bank.journal.sync-every:1}") int syncEvery) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new OperationJournal(path, regionSize, syncEvery);
+    }
+
+    @Bean
+    public JournalSnapshotStore journalSnapshotStore(@Value("${bank.journal.snapshot-path:${bank.journal.path:bank.journal}.snapshot}") Path path) {
+        return new JournalSnapshotStore(path);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(OperationJournal operationJournal) {
+        return new JournalTransactionManager(operationJournal);
+    }
+}
@@ -0,0 +1,663 @@
+package com.bank.infrastructure.repositories.journal;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import io.micrometer.core.annotation.Timed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.domain.Account;
+import com.bank.domain.Operation;
+import com.bank.domain.enums.AccountType;
+import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
+import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.repositories.InfrastructureRepository;
+import com.bank.infrastructure.repositories.journal.JournalCodec.AccountRecord;
+import com.bank.infrastructure.repositories.journal.JournalCodec.BalanceRecord;
+import com.bank.infrastructure.repositories.journal.JournalCodec.OperationRecord;
+import com.bank.infrastructure.repositories.journal.JournalCodec.SummaryRecord;
+
+/**
+ * Persistence adapter writing every change to an append-only journal instead of the database.
+ * The accounts are kept in memory, rebuilt at startup from the latest snapshot and the journal records
+ * appended after it. The operations stay in the journal : each account only keeps the position (which is
+ * also the operation id) and the date of its operations, and the operations of a month are read back
+ * from the mapped journal.
+ */
+@Repository
+@Profile("journal")
+@Timed(value = "bank.repository", histogram = true)
+public class JournalInfrastructureRepository implements InfrastructureRepository {
+
+    private static final String SEED_ACCOUNT_NUMBER = "1";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalInfrastructureRepository.class);
+
+    private final OperationJournal journal;
+    private final JournalSnapshotStore snapshotStore;
+    private final Map<String, AccountState> accounts = new ConcurrentHashMap<>();
+    private RecoveryStatistics recoveryStatistics;
+    // records of the transaction being replayed, null outside a transaction
+    private List<OperationJournal.JournalRecord> pendingTransaction;
+
+    public JournalInfrastructureRepository(OperationJournal journal, JournalSnapshotStore snapshotStore) throws IOException {
+        this.journal = journal;
+        this.snapshotStore = snapshotStore;
+        recover();
+        if (accounts.isEmpty()) {
+            AccountState seed = new AccountState(SEED_ACCOUNT_NUMBER);
+            seed.accountType = AccountType.CURRENT_ACCOUNT;
+            seed.balance = new BigDecimal("0.00");
+            seed.authorizedOverdraw = new BigDecimal("0.00");
+            seed.overdraw = new BigDecimal("0.00");
+            append(JournalCodec.ACCOUNT, JournalCodec.encode(seed.toRecord()));
+            accounts.put(SEED_ACCOUNT_NUMBER, seed);
+        }
+    }
+
+    /**
+     * Timings of the last recovery
+     * @param snapshotMillis : time to load the snapshot
+     * @param snapshotAccounts : accounts loaded from the snapshot
+     * @param replayMillis : time to replay the journal after the snapshot
+     * @param replayedRecords : records replayed
+     */
+    public record RecoveryStatistics(long snapshotMillis, int snapshotAccounts, long replayMillis, long replayedRecords) {
+    }
+
+    public RecoveryStatistics getRecoveryStatistics() {
+        return recoveryStatistics;
+    }
+
+    /**
+     * Load the latest snapshot, then replay only the records appended after it
+     */
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        Optional<JournalSnapshotStore.Snapshot> snapshot = snapshotStore.read();
+        snapshot.ifPresent(loaded -> loaded.accounts().forEach(account -> {
+            AccountState state = new AccountState(account.account().accountNumber());
+            state.apply(account.account());
+            state.operationPositions = account.operationPositions();
+            state.operationDays = account.operationDays();
+            state.operationCount = account.operationPositions().length;
+            account.summaries().forEach(summary -> state.summaries.put(monthKey(summary.year(), summary.month()), summary));
+            accounts.put(state.accountNumber, state);
+        }));
+        long loaded = System.nanoTime();
+
+        long replayed = journal.replay(snapshot.map(JournalSnapshotStore.Snapshot::position).orElse(0L), this::replay);
+        if (pendingTransaction != null) {
+            LOGGER.warn("Journal ends within a transaction, its {} records are dropped", pendingTransaction.size());
+            append(JournalCodec.ROLLBACK, JournalCodec.encodeCount(pendingTransaction.size()));
+            pendingTransaction = null;
+        }
+        long end = System.nanoTime();
+
+        recoveryStatistics = new RecoveryStatistics(TimeUnit.NANOSECONDS.toMillis(loaded - start), accounts.size(),
+                                                    TimeUnit.NANOSECONDS.toMillis(end - loaded), replayed);
+        LOGGER.info("Journal recovered : snapshot of {} accounts loaded in {} ms, {} records replayed in {} ms",
+                    recoveryStatistics.snapshotAccounts(), recoveryStatistics.snapshotMillis(),
+                    recoveryStatistics.replayedRecords(), recoveryStatistics.replayMillis());
+    }
+
+    /**
+     * Write a snapshot of every account. The journal position is taken first, then each account is
+     * copied under its lock : a record before the position is always in the copy, a record after it
+     * may be in the copy too, which is why replaying a record already in the state does nothing.
+     */
+    @Scheduled(initialDelayString = "${bank.journal.snapshot-interval-ms:60000}",
+               fixedDelayString = "${bank.journal.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        long start = System.nanoTime();
+        try {
+            journal.sync();
+            long position = journal.position();
+            List<JournalSnapshotStore.SnapshotAccount> snapshotAccounts = new ArrayList<>(accounts.size());
+            for (AccountState state : accounts.values()) {
+                state.lock.lock();
+                try {
+                    snapshotAccounts.add(new JournalSnapshotStore.SnapshotAccount(state.toRecord(),
+                        Arrays.copyOf(state.operationPositions, state.operationCount),
+                        Arrays.copyOf(state.operationDays, state.operationCount),
+                        List.copyOf(state.summaries.values())));
+                } finally {
+                    state.lock.unlock();
+                }
+            }
+            snapshotStore.write(new JournalSnapshotStore.Snapshot(position, snapshotAccounts));
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write the journal snapshot", e);
+        }
+        LOGGER.info("Journal snapshot of {} accounts written in {} ms",
+                    accounts.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Bounds the time an append stays unsynced when the journal is only synced every few appends
+     */
+    @Scheduled(fixedDelayString = "${bank.journal.sync-interval-ms:1000}")
+    public void sync() {
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not sync the operation journal", e);
+        }
+    }
+
+    /**
+     * A last snapshot on shutdown makes the next start replay nothing
+     */
+    @PreDestroy
+    public void close() {
+        snapshot();
+    }
+
+    @Override
+    public Optional<AccountEntity> findAccount(String accountNumber) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            return Optional.empty();
+        }
+        state.lock.lock();
+        try {
+            return Optional.of(state.toEntity());
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * The lock of the account is held until the end of the current transaction, like a row lock
+     */
+    @Override
+    public Optional<AccountEntity> findAccountForUpdate(String accountNumber) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            return Optional.empty();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            state.lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    state.lock.unlock();
+                }
+            });
+        }
+        return findAccount(accountNumber);
+    }
+
+    @Override
+    public void save(AccountEntity accountEntity) {
+        AccountState state = accounts.get(accountEntity.getAccountNumber());
+        if (state == null) {
+            throw new OptimisticLockingFailureException("No account with the number " + accountEntity.getAccountNumber());
+        }
+        state.lock.lock();
+        try {
+            if (accountEntity.getVersion() != null && accountEntity.getVersion() != state.version) {
+                throw new OptimisticLockingFailureException("The account " + state.accountNumber + " was updated concurrently");
+            }
+            Account account = accountEntity.toDomain();
+            AccountRecord saved = new AccountRecord(state.accountNumber, account.getAccountType(), account.getBalance(),
+                                                    account.getAuthorizedOverdraw(), account.getOverdraw(), state.version + 1);
+            write(state, JournalCodec.ACCOUNT, JournalCodec.encode(saved), null);
+            state.apply(saved);
+            accountEntity.setVersion(state.version);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * The guard and the balance record are written under the lock of the account, so concurrent calls
+     * can neither lose an update nor overdraw the account. Only a withdrawal is guarded, like Account.deposit
+     * a deposit is accepted even on an account already beyond its overdraw.
+     */
+    @Override
+    public Optional<BigDecimal> applyBalanceChange(String accountNumber, BigDecimal delta) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            return Optional.empty();
+        }
+        state.lock.lock();
+        try {
+            BigDecimal balance = state.balance.add(delta);
+            BigDecimal authorizedOverdraw = Objects.requireNonNullElse(state.authorizedOverdraw, BigDecimal.ZERO);
+            if (delta.signum() < 0 && balance.add(authorizedOverdraw).signum() < 0) {
+                return Optional.empty();
+            }
+            BalanceRecord change = new BalanceRecord(accountNumber, balance, state.version + 1);
+            write(state, JournalCodec.BALANCE, JournalCodec.encode(change), null);
+            state.balance = change.balance();
+            state.version = change.version();
+            return Optional.of(balance);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveOperation(String accountNumber, OperationEntity operationEntity) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            throw new DataAccessResourceFailureException("No account with the number " + accountNumber);
+        }
+        state.lock.lock();
+        try {
+            writeOperation(state, operationEntity);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveOperations(String accountNumber, List<OperationEntity> operationEntities) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            throw new DataAccessResourceFailureException("No account with the number " + accountNumber);
+        }
+        state.lock.lock();
+        try {
+            operationEntities.forEach(operationEntity -> writeOperation(state, operationEntity));
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * The positions of the month are selected from the dates kept in memory, only those records are read
+     */
+    @Override
+    public List<OperationEntity> findOperationsByMonthAndYear(String accountNumber, int month, int year) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            return List.of();
+        }
+        long start = LocalDate.of(year, month, 1).toEpochDay();
+        long end = LocalDate.of(year, month, 1).plusMonths(1).toEpochDay();
+
+        long[] positions;
+        int found = 0;
+        state.lock.lock();
+        try {
+            positions = new long[state.operationCount];
+            for (int i = state.operationCount - 1; i >= 0; i--) {
+                if (state.operationDays[i] >= start && state.operationDays[i] < end) {
+                    positions[found++] = state.operationPositions[i];
+                }
+            }
+        } finally {
+            state.lock.unlock();
+        }
+
+        List<OperationEntity> operations = new ArrayList<>(found);
+        try {
+            for (int i = 0; i < found; i++) {
+                OperationRecord operation = JournalCodec.decodeOperation(journal.read(positions[i]).payload());
+                operations.add(toEntity(positions[i], operation));
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not read the operation journal", e);
+        }
+        operations.sort(Comparator.comparing(OperationEntity::getDate).reversed());
+        return operations;
+    }
+
+    /**
+     * Only the positions of the range are sorted in memory, the operations are read from the journal
+     * one at a time
+     */
+    @Override
+    public long forEachOperation(String accountNumber, LocalDate from, LocalDate to, Consumer<OperationEntity> consumer) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            return 0;
+        }
+        long[] positions = positionsBetween(state, from.toEpochDay(), to.toEpochDay() + 1);
+        try {
+            for (long position : positions) {
+                consumer.accept(toEntity(position, JournalCodec.decodeOperation(journal.read(position).payload())));
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not read the operation journal", e);
+        }
+        return positions.length;
+    }
+
+    /**
+     * The page is selected from the dates kept in memory, only its operations are read from the journal
+     */
+    @Override
+    public List<OperationEntity> findOperationsBefore(String accountNumber, LocalDate beforeDate, Long beforeOperationId, int limit) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            return List.of();
+        }
+        long[] page;
+        state.lock.lock();
+        try {
+            long before = Long.MAX_VALUE;
+            if (beforeDate != null) {
+                int index = Arrays.binarySearch(state.operationPositions, 0, state.operationCount, beforeOperationId);
+                before = (beforeDate.toEpochDay() << 32) | (index >= 0 ? index : -index - 1);
+            }
+            long[] keys = new long[state.operationCount];
+            int found = 0;
+            for (int i = 0; i < state.operationCount; i++) {
+                long key = (state.operationDays[i] << 32) | i;
+                if (key < before) {
+                    keys[found++] = key;
+                }
+            }
+            Arrays.sort(keys, 0, found);
+            page = new long[Math.min(limit, found)];
+            for (int i = 0; i < page.length; i++) {
+                page[i] = state.operationPositions[(int) keys[found - 1 - i]];
+            }
+        } finally {
+            state.lock.unlock();
+        }
+
+        List<OperationEntity> operations = new ArrayList<>(page.length);
+        try {
+            for (long position : page) {
+                operations.add(toEntity(position, JournalCodec.decodeOperation(journal.read(position).payload())));
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not read the operation journal", e);
+        }
+        return operations;
+    }
+
+    @Override
+    public void addToMonthlySummary(MonthlySummaryEntity summaryDelta) {
+        AccountState state = accounts.get(summaryDelta.getAccountNumber());
+        if (state == null) {
+            throw new DataAccessResourceFailureException("No account with the number " + summaryDelta.getAccountNumber());
+        }
+        state.lock.lock();
+        try {
+            int key = monthKey(summaryDelta.getYear(), summaryDelta.getMonth());
+            SummaryRecord current = state.summaries.get(key);
+            MonthlySummaryEntity summary = current == null ? summaryDelta : toEntity(current).plus(summaryDelta);
+            SummaryRecord updated = new SummaryRecord(summary.getAccountNumber(), summary.getYear(), summary.getMonth(),
+                                                      summary.getDepositCount(), summary.getWithdrawalCount(),
+                                                      summary.getTotalDeposits(), summary.getTotalWithdrawals());
+            write(state, JournalCodec.SUMMARY, JournalCodec.encode(updated), null);
+            state.summaries.put(key, updated);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * The closing balance is the balance of the account less the net change of the later months
+     */
+    @Override
+    public Optional<MonthlySummaryEntity> findMonthlySummary(String accountNumber, int month, int year) {
+        AccountState state = accounts.get(accountNumber);
+        if (state == null) {
+            return Optional.empty();
+        }
+        state.lock.lock();
+        try {
+            int key = monthKey(year, month);
+            SummaryRecord summary = state.summaries.get(key);
+            if (summary == null) {
+                return Optional.empty();
+            }
+            BigDecimal closingBalance = state.balance;
+            for (Map.Entry<Integer, SummaryRecord> later : state.summaries.entrySet()) {
+                if (later.getKey() > key) {
+                    closingBalance = closingBalance.subtract(later.getValue().totalDeposits()).add(later.getValue().totalWithdrawals());
+                }
+            }
+            return Optional.of(new MonthlySummaryEntity(summary.accountNumber(), summary.year(), summary.month(),
+                                                        summary.depositCount(), summary.withdrawalCount(),
+                                                        summary.totalDeposits(), summary.totalWithdrawals(), closingBalance));
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * Positions of the operations dated within [startDay, endDay), in (date, position) order : each day and
+     * index are packed in a long, so that the sort is a primitive sort
+     */
+    private static long[] positionsBetween(AccountState state, long startDay, long endDay) {
+        long[] keys;
+        int found = 0;
+        long[] positions;
+        state.lock.lock();
+        try {
+            keys = new long[state.operationCount];
+            for (int i = 0; i < state.operationCount; i++) {
+                long day = state.operationDays[i];
+                if (day >= startDay && day < endDay) {
+                    keys[found++] = (day << 32) | i;
+                }
+            }
+            Arrays.sort(keys, 0, found);
+            positions = new long[found];
+            for (int i = 0; i < found; i++) {
+                positions[i] = state.operationPositions[(int) keys[i]];
+            }
+        } finally {
+            state.lock.unlock();
+        }
+        return positions;
+    }
+
+    /**
+     * The operation gets its position, which is also its id, once its record is appended
+     */
+    private void writeOperation(AccountState state, OperationEntity operationEntity) {
+        Operation operation = operationEntity.toDomain();
+        OperationRecord record = new OperationRecord(state.accountNumber, operation.getDate(), operation.getAmount(), operation.getLabel());
+        operationEntity.setAccountNumber(state.accountNumber);
+        write(state, JournalCodec.OPERATION, JournalCodec.encode(record), position -> {
+            state.addOperation(position, record.date());
+            operationEntity.setOperationId(position);
+        });
+    }
+
+    /**
+     * Write a record of an account, under its lock and before changing its state. Within a transaction,
+     * the record is appended on commit with the other records of the transaction, and the account stays
+     * locked until the transaction is over, to get back its state if it rolls back. Outside, the record is
+     * appended at once.
+     * @param onCommit : given the position of the record once appended, or null
+     */
+    private void write(AccountState state, byte type, byte[] payload, LongConsumer onCommit) {
+        JournalUnitOfWork unitOfWork = JournalTransactionManager.currentUnitOfWork(journal);
+        if (unitOfWork == null) {
+            long position = append(type, payload);
+            if (onCommit != null) {
+                onCommit.accept(position);
+            }
+            return;
+        }
+        if (!unitOfWork.holds(state)) {
+            AccountRecord before = state.toRecord();
+            Map<Integer, SummaryRecord> summariesBefore = new HashMap<>(state.summaries);
+            unitOfWork.hold(state, state.lock, () -> {
+                state.apply(before);
+                state.summaries.clear();
+                state.summaries.putAll(summariesBefore);
+            });
+        }
+        unitOfWork.add(type, payload, onCommit);
+    }
+
+    private long append(byte type, byte[] payload) {
+        try {
+            return journal.append(type, payload);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not append to the operation journal", e);
+        }
+    }
+
+    /**
+     * The records of a transaction are kept until its COMMIT record, and dropped on a ROLLBACK record
+     * or when another transaction begins : it was torn by a crash
+     */
+    private void replay(OperationJournal.JournalRecord record) throws IOException {
+        switch (record.type()) {
+            case JournalCodec.BEGIN -> pendingTransaction = new ArrayList<>(JournalCodec.decodeCount(record.payload()));
+            case JournalCodec.ROLLBACK -> pendingTransaction = null;
+            case JournalCodec.COMMIT -> {
+                if (pendingTransaction != null) {
+                    for (OperationJournal.JournalRecord committed : pendingTransaction) {
+                        apply(committed);
+                    }
+                    pendingTransaction = null;
+                }
+            }
+            default -> {
+                if (pendingTransaction != null) {
+                    pendingTransaction.add(record);
+                } else {
+                    apply(record);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaying is idempotent, as the records following a snapshot may already be in it : the account
+     * records carry a version, the operations of an account are appended in journal order and the
+     * summary records hold the whole summary of their month
+     */
+    private void apply(OperationJournal.JournalRecord record) throws IOException {
+        switch (record.type()) {
+            case JournalCodec.ACCOUNT -> {
+                AccountRecord account = JournalCodec.decodeAccount(record.payload());
+                AccountState state = accounts.get(account.accountNumber());
+                if (state == null) {
+                    state = new AccountState(account.accountNumber());
+                    accounts.put(account.accountNumber(), state);
+                } else if (account.version() <= state.version) {
+                    return;
+                }
+                state.apply(account);
+            }
+            case JournalCodec.BALANCE -> {
+                BalanceRecord change = JournalCodec.decodeBalance(record.payload());
+                AccountState state = accounts.get(change.accountNumber());
+                if (change.version() > state.version) {
+                    state.balance = change.balance();
+                    state.version = change.version();
+                }
+            }
+            case JournalCodec.OPERATION -> {
+                OperationRecord operation = JournalCodec.decodeOperation(record.payload());
+                AccountState state = accounts.get(operation.accountNumber());
+                if (state.operationCount == 0 || state.operationPositions[state.operationCount - 1] < record.position()) {
+                    state.addOperation(record.position(), operation.date());
+                }
+            }
+            case JournalCodec.SUMMARY, JournalCodec.LEGACY_SUMMARY -> {
+                SummaryRecord summary = record.type() == JournalCodec.SUMMARY
+                    ? JournalCodec.decodeSummary(record.payload())
+                    : JournalCodec.decodeLegacySummary(record.payload());
+                accounts.get(summary.accountNumber()).summaries.put(monthKey(summary.year(), summary.month()), summary);
+            }
+            default -> throw new IOException("Unknown journal record type " + record.type() + " at " + record.position());
+        }
+    }
+
+    private static MonthlySummaryEntity toEntity(SummaryRecord summary) {
+        return new MonthlySummaryEntity(summary.accountNumber(), summary.year(), summary.month(),
+                                        summary.depositCount(), summary.withdrawalCount(),
+                                        summary.totalDeposits(), summary.totalWithdrawals(), null);
+    }
+
+    private static int monthKey(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    private static OperationEntity toEntity(long position, OperationRecord record) {
+        OperationEntity operationEntity = new OperationEntity().fromDomain(new Operation(record.date(), record.amount(), record.label()));
+        operationEntity.setOperationId(position);
+        operationEntity.setAccountNumber(record.accountNumber());
+        return operationEntity;
+    }
+
+    /**
+     * In-memory state of an account, guarded by its lock
+     */
+    private static final class AccountState {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String accountNumber;
+        private AccountType accountType;
+        private BigDecimal balance = BigDecimal.ZERO;
+        private BigDecimal authorizedOverdraw;
+        private BigDecimal overdraw;
+        private long version;
+
+        private long[] operationPositions = new long[16];
+        private long[] operationDays = new long[16];
+        private int operationCount;
+
+        private final Map<Integer, SummaryRecord> summaries = new HashMap<>();
+
+        private AccountState(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+
+        private void apply(AccountRecord record) {
+            accountType = record.accountType();
+            balance = record.balance();
+            authorizedOverdraw = record.authorizedOverdraw();
+            overdraw = record.overdraw();
+            version = record.version();
+        }
+
+        private AccountRecord toRecord() {
+            return new AccountRecord(accountNumber, accountType, balance, authorizedOverdraw, overdraw, version);
+        }
+
+        private void addOperation(long position, LocalDate date) {
+            if (operationCount == operationPositions.length) {
+                operationPositions = Arrays.copyOf(operationPositions, Math.max(16, operationCount * 2));
+                operationDays = Arrays.copyOf(operationDays, Math.max(16, operationCount * 2));
+            }
+            operationPositions[operationCount] = position;
+            operationDays[operationCount] = date.toEpochDay();
+            operationCount++;
+        }
+
+        private AccountEntity toEntity() {
+            return AccountEntity.of(accountNumber, balance, accountType, authorizedOverdraw, overdraw, version);
+        }
+    }
+}
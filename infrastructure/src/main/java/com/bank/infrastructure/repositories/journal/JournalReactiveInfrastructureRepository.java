@@ -0,0 +1,75 @@
+package com.bank.infrastructure.repositories.journal;
+
+import java.math.BigDecimal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
+import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.repositories.ReactiveInfrastructureRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive adapter of the journal profile, on the accounts of the journal repository : the reactive and
+ * the blocking API share one ledger. The accounts are in memory, so the calls run on the caller's thread,
+ * except a transaction, which may wait for the locks of its accounts : it runs on a bounded elastic
+ * thread, its writes subscribed on that thread so that they join the journal transaction bound to it.
+ */
+@Repository
+@Profile("journal")
+@ConditionalOnProperty(name = "bank.reactive.repository", havingValue = "journal")
+public class JournalReactiveInfrastructureRepository implements ReactiveInfrastructureRepository {
+
+    private final JournalInfrastructureRepository journalRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JournalReactiveInfrastructureRepository(JournalInfrastructureRepository journalRepository,
+                                                   PlatformTransactionManager transactionManager) {
+        this.journalRepository = journalRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Mono<AccountEntity> findAccount(String accountNumber) {
+        return Mono.defer(() -> Mono.justOrEmpty(journalRepository.findAccount(accountNumber)));
+    }
+
+    @Override
+    public Mono<Void> save(AccountEntity accountEntity) {
+        return Mono.fromRunnable(() -> journalRepository.save(accountEntity));
+    }
+
+    @Override
+    public Mono<BigDecimal> applyBalanceChange(String accountNumber, BigDecimal delta) {
+        return Mono.defer(() -> Mono.justOrEmpty(journalRepository.applyBalanceChange(accountNumber, delta)));
+    }
+
+    @Override
+    public Mono<Void> saveOperation(String accountNumber, OperationEntity operationEntity) {
+        return Mono.fromRunnable(() -> journalRepository.saveOperation(accountNumber, operationEntity));
+    }
+
+    @Override
+    public Mono<Void> addToMonthlySummary(MonthlySummaryEntity summaryDelta) {
+        return Mono.fromRunnable(() -> journalRepository.addToMonthlySummary(summaryDelta));
+    }
+
+    @Override
+    public Flux<OperationEntity> findOperationsByMonthAndYear(String accountNumber, int month, int year) {
+        return Flux.defer(() -> Flux.fromIterable(journalRepository.findOperationsByMonthAndYear(accountNumber, month, year)));
+    }
+
+    @Override
+    public <T> Mono<T> inTransaction(Mono<T> work) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> work.block()))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+}
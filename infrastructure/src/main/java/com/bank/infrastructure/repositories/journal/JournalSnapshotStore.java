@@ -0,0 +1,135 @@
+package com.bank.infrastructure.repositories.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import com.bank.infrastructure.repositories.journal.JournalCodec.AccountRecord;
+import com.bank.infrastructure.repositories.journal.JournalCodec.SummaryRecord;
+
+/**
+ * Compact snapshot of every account (state, operation positions and monthly summaries) at a journal position.
+ * A snapshot is written to a temporary file then atomically moved over the previous one, and a snapshot
+ * whose checksum does not match is ignored : the journal is then replayed from its start.
+ */
+public class JournalSnapshotStore {
+
+    // BKS3 : the summaries are encoded without a closing balance since BKS2, whose snapshots are ignored
+    private static final int MAGIC = 0x424B5333;
+
+    private final Path path;
+
+    public JournalSnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * An account in a snapshot
+     * @param account : state of the account
+     * @param operationPositions : journal positions of its operations, in journal order
+     * @param operationDays : epoch days of its operations, in the same order
+     * @param summaries : summaries of its months
+     */
+    public record SnapshotAccount(AccountRecord account, long[] operationPositions, long[] operationDays,
+                                  List<SummaryRecord> summaries) {
+    }
+
+    /**
+     * @param position : journal position from which the records are not included in the snapshot
+     * @param accounts
+     */
+    public record Snapshot(long position, List<SnapshotAccount> accounts) {
+    }
+
+    /**
+     * Write a snapshot, replacing the previous one
+     * @param snapshot
+     */
+    public void write(Snapshot snapshot) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeLong(snapshot.position());
+            out.writeInt(snapshot.accounts().size());
+            for (SnapshotAccount account : snapshot.accounts()) {
+                byte[] state = JournalCodec.encode(account.account());
+                out.writeInt(state.length);
+                out.write(state);
+                out.writeInt(account.operationPositions().length);
+                for (int i = 0; i < account.operationPositions().length; i++) {
+                    out.writeLong(account.operationPositions()[i]);
+                    out.writeLong(account.operationDays()[i]);
+                }
+                out.writeInt(account.summaries().size());
+                for (SummaryRecord summary : account.summaries()) {
+                    byte[] encoded = JournalCodec.encode(summary);
+                    out.writeInt(encoded.length);
+                    out.write(encoded);
+                }
+            }
+            out.flush();
+            new DataOutputStream(file).writeInt((int) crc.getValue());
+            file.getFD().sync();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the latest snapshot
+     * @return the snapshot, or empty if there is none or if it is corrupted
+     */
+    public Optional<Snapshot> read() throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            CRC32C crc = new CRC32C();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != MAGIC) {
+                return Optional.empty();
+            }
+            long position = in.readLong();
+            int count = in.readInt();
+            List<SnapshotAccount> accounts = new ArrayList<>(count);
+            for (int a = 0; a < count; a++) {
+                byte[] state = new byte[in.readInt()];
+                in.readFully(state);
+                long[] positions = new long[in.readInt()];
+                long[] days = new long[positions.length];
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = in.readLong();
+                    days[i] = in.readLong();
+                }
+                List<SummaryRecord> summaries = new ArrayList<>();
+                for (int i = in.readInt(); i > 0; i--) {
+                    byte[] summary = new byte[in.readInt()];
+                    in.readFully(summary);
+                    summaries.add(JournalCodec.decodeSummary(ByteBuffer.wrap(summary)));
+                }
+                accounts.add(new SnapshotAccount(JournalCodec.decodeAccount(ByteBuffer.wrap(state)), positions, days, summaries));
+            }
+            int checksum = (int) crc.getValue();
+            if (new DataInputStream(file).readInt() != checksum) {
+                return Optional.empty();
+            }
+            return Optional.of(new Snapshot(position, accounts));
+        } catch (NoSuchFileException | EOFException | IllegalArgumentException | NegativeArraySizeException e) {
+            return Optional.empty();
+        }
+    }
+}
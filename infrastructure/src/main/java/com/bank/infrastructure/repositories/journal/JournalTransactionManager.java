@@ -0,0 +1,98 @@
+package com.bank.infrastructure.repositories.journal;
+
+import java.io.IOException;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager of the journal profile. A transaction binds a unit of work to the journal : the
+ * records written by the repository are kept in it and appended together on commit, and the accounts
+ * it changed are restored on rollback. The account locks taken during a transaction are released once
+ * it is over.
+ */
+public class JournalTransactionManager extends AbstractPlatformTransactionManager {
+
+    private final OperationJournal journal;
+
+    public JournalTransactionManager(OperationJournal journal) {
+        this.journal = journal;
+    }
+
+    private record JournalTransaction(JournalUnitOfWork unitOfWork, boolean existing) implements SmartTransactionObject {
+
+        @Override
+        public boolean isRollbackOnly() {
+            return unitOfWork.isRollbackOnly();
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+
+    /**
+     * @return the unit of work of the current transaction on the journal, or null outside a transaction
+     */
+    static JournalUnitOfWork currentUnitOfWork(OperationJournal journal) {
+        return (JournalUnitOfWork) TransactionSynchronizationManager.getResource(journal);
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        JournalUnitOfWork unitOfWork = currentUnitOfWork(journal);
+        return new JournalTransaction(unitOfWork == null ? new JournalUnitOfWork() : unitOfWork, unitOfWork != null);
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((JournalTransaction) transaction).existing();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        TransactionSynchronizationManager.bindResource(journal, ((JournalTransaction) transaction).unitOfWork());
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        return TransactionSynchronizationManager.unbindResource(journal);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(journal, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        try {
+            ((JournalTransaction) status.getTransaction()).unitOfWork().commit(journal);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not append to the operation journal", e);
+        }
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        ((JournalTransaction) status.getTransaction()).unitOfWork().rollback();
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((JournalTransaction) status.getTransaction()).unitOfWork().setRollbackOnly();
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        JournalTransaction journalTransaction = (JournalTransaction) transaction;
+        if (!journalTransaction.existing()) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(journal);
+            journalTransaction.unitOfWork().release();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.bank.infrastructure.repositories.journal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Records written during a transaction of the journal profile. Nothing reaches the journal before the
+ * commit, which appends the records together between a BEGIN and a COMMIT record, so that a replay
+ * applies all of them or none. The accounts changed by the transaction stay locked until it is over,
+ * and get back the state they had before if it rolls back.
+ */
+final class JournalUnitOfWork {
+
+    private final List<PendingRecord> records = new ArrayList<>();
+    private final Map<Object, Runnable> undos = new IdentityHashMap<>();
+    private final List<ReentrantLock> locks = new ArrayList<>();
+    private boolean rollbackOnly;
+
+    /**
+     * @return true if the account is already locked by this transaction
+     */
+    boolean holds(Object account) {
+        return undos.containsKey(account);
+    }
+
+    /**
+     * Keep an account locked until the end of the transaction
+     * @param account
+     * @param lock : lock of the account, already held by the current thread, held once more until the end
+     * @param undo : restores the state of the account before the transaction
+     */
+    void hold(Object account, ReentrantLock lock, Runnable undo) {
+        lock.lock();
+        locks.add(lock);
+        undos.put(account, undo);
+    }
+
+    /**
+     * Add a record to append on commit
+     * @param onCommit : given the position of the record once appended
+     */
+    void add(byte type, byte[] payload, LongConsumer onCommit) {
+        records.add(new PendingRecord(type, payload, onCommit));
+    }
+
+    /**
+     * Append the records, framed by BEGIN and COMMIT unless there is a single one. If only some of them
+     * could be appended, a ROLLBACK record tells the replay to drop them.
+     */
+    void commit(OperationJournal journal) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<PendingRecord> framed = records;
+        if (records.size() > 1) {
+            byte[] count = JournalCodec.encodeCount(records.size());
+            framed = new ArrayList<>(records.size() + 2);
+            framed.add(new PendingRecord(JournalCodec.BEGIN, count, null));
+            framed.addAll(records);
+            framed.add(new PendingRecord(JournalCodec.COMMIT, count, null));
+        }
+        byte[] types = new byte[framed.size()];
+        List<byte[]> payloads = new ArrayList<>(framed.size());
+        for (int i = 0; i < types.length; i++) {
+            types[i] = framed.get(i).type();
+            payloads.add(framed.get(i).payload());
+        }
+        long[] positions;
+        try {
+            positions = journal.appendAll(types, payloads);
+        } catch (IOException | RuntimeException e) {
+            if (framed != records) {
+                try {
+                    journal.append(JournalCodec.ROLLBACK, JournalCodec.encodeCount(records.size()));
+                } catch (IOException | RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        for (int i = 0; i < positions.length; i++) {
+            if (framed.get(i).onCommit() != null) {
+                framed.get(i).onCommit().accept(positions[i]);
+            }
+        }
+    }
+
+    /**
+     * A transaction taking part in this one failed : it can only roll back
+     */
+    void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    void rollback() {
+        undos.values().forEach(Runnable::run);
+    }
+
+    void release() {
+        locks.forEach(ReentrantLock::unlock);
+        locks.clear();
+    }
+
+    private record PendingRecord(byte type, byte[] payload, LongConsumer onCommit) {
+    }
+}
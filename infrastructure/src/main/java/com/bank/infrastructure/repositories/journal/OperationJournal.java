@@ -0,0 +1,285 @@
+package com.bank.infrastructure.repositories.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal file, memory-mapped by fixed-size regions.
+ * Each record is [length : int][crc32c : int][type : byte][payload : length bytes], and never crosses
+ * a region : when it does not fit, the rest of the region is skipped. A record is followed by a zero
+ * length, so that reading stops at the end of the journal or at the first torn or corrupted record.
+ * Mapped pages are forced to disk every syncEvery appends (1 makes every append durable), and by sync(),
+ * which the owner of the journal calls periodically so that a quiet journal does not keep appends unsynced.
+ */
+public class OperationJournal implements Closeable {
+
+    private static final int MAGIC = 0x424B4A31;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final int SKIP_TO_NEXT_REGION = -1;
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private final int syncEvery;
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long position = -1;
+    private long syncedPosition;
+    private int unsynced;
+
+    /**
+     * Open or create a journal
+     * @param path
+     * @param regionSize : size of a mapped region, the biggest record has to fit in one
+     * @param syncEvery : number of appends between two flushes of the mapped pages to disk
+     */
+    public OperationJournal(Path path, int regionSize, int syncEvery) throws IOException {
+        if (regionSize <= FILE_HEADER_SIZE + RECORD_HEADER_SIZE || syncEvery < 1) {
+            throw new IllegalArgumentException("Invalid journal region size or sync interval");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.syncEvery = syncEvery;
+
+        if (channel.size() == 0) {
+            this.regionSize = regionSize;
+            region(0).putInt(0, MAGIC).putInt(4, regionSize);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not an operation journal");
+            }
+            this.regionSize = header.getInt(4);
+        }
+    }
+
+    /**
+     * Read the records from a position to the end of the journal. Appending is only possible once
+     * the journal has been read to its end.
+     * @param fromPosition : position of a record, or 0 to read the whole journal
+     * @param handler : called for each record, in order
+     * @return the number of records read
+     */
+    public long replay(long fromPosition, RecordHandler handler) throws IOException {
+        lock.lock();
+        try {
+            long count = 0;
+            long current = Math.max(fromPosition, FILE_HEADER_SIZE);
+            JournalRecord record;
+            while ((record = readAt(current)) != null) {
+                handler.onRecord(record);
+                current = record.nextPosition();
+                count++;
+            }
+            position = current;
+            syncedPosition = current;
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append a record
+     * @param type
+     * @param payload
+     * @return the position of the record, unique and increasing
+     */
+    public long append(byte type, byte[] payload) throws IOException {
+        return appendAll(new byte[] {type}, List.of(payload))[0];
+    }
+
+    /**
+     * Append records next to each other, no other record can come in between. They are synced together,
+     * and count as one append for the sync interval.
+     * @param types : type of each record
+     * @param payloads : payload of each record
+     * @return the positions of the records, unique and increasing
+     */
+    public long[] appendAll(byte[] types, List<byte[]> payloads) throws IOException {
+        for (byte[] payload : payloads) {
+            if (RECORD_HEADER_SIZE + payload.length + Integer.BYTES > regionSize) {
+                throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a journal region");
+            }
+        }
+        lock.lock();
+        try {
+            if (position < 0) {
+                throw new IllegalStateException("The journal has to be replayed before appending");
+            }
+            long[] positions = new long[payloads.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = appendLocked(types[i], payloads.get(i));
+            }
+            if (++unsynced >= syncEvery) {
+                syncLocked();
+            }
+            return positions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long appendLocked(byte type, byte[] payload) throws IOException {
+        int size = RECORD_HEADER_SIZE + payload.length;
+        int offset = offset(position);
+        if (offset + size + Integer.BYTES > regionSize) {
+            if (regionSize - offset >= Integer.BYTES) {
+                region(position).putInt(offset, SKIP_TO_NEXT_REGION);
+            }
+            position = (position / regionSize + 1) * regionSize;
+            offset = 0;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+
+        long recordPosition = position;
+        MappedByteBuffer region = region(recordPosition);
+        region.putInt(offset + 4, (int) crc.getValue());
+        region.put(offset + 8, type);
+        region.put(offset + RECORD_HEADER_SIZE, payload);
+        region.putInt(offset + size, 0);
+        region.putInt(offset, payload.length);
+
+        position = recordPosition + size;
+        return recordPosition;
+    }
+
+    /**
+     * Read the record at a position returned by append()
+     * @param recordPosition
+     * @return the record
+     */
+    public JournalRecord read(long recordPosition) throws IOException {
+        JournalRecord record = readAt(recordPosition);
+        if (record == null || record.position() != recordPosition) {
+            throw new IOException("No valid journal record at " + recordPosition);
+        }
+        return record;
+    }
+
+    /**
+     * Force the records appended since the last sync to disk
+     */
+    public void sync() throws IOException {
+        lock.lock();
+        try {
+            syncLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the position of the next record
+     */
+    public long position() {
+        lock.lock();
+        try {
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (position >= 0) {
+                syncLocked();
+            }
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncLocked() throws IOException {
+        if (position == syncedPosition) {
+            return;
+        }
+        for (long region = syncedPosition / regionSize; region <= (position - 1) / regionSize; region++) {
+            regions.get((int) region).force();
+        }
+        syncedPosition = position;
+        unsynced = 0;
+    }
+
+    /**
+     * @return the record at the position (or at the start of the next region after a skip marker),
+     * or null at the end of the journal or on a corrupted record
+     */
+    private JournalRecord readAt(long recordPosition) throws IOException {
+        long current = recordPosition;
+        if (current >= channel.size()) {
+            return null;
+        }
+        int offset = offset(current);
+        if (regionSize - offset < Integer.BYTES) {
+            return readAt((current / regionSize + 1) * regionSize);
+        }
+        MappedByteBuffer region = region(current);
+        int length = region.getInt(offset);
+        if (length == SKIP_TO_NEXT_REGION) {
+            return readAt((current / regionSize + 1) * regionSize);
+        }
+        if (length <= 0 || offset + RECORD_HEADER_SIZE + length > regionSize) {
+            return null;
+        }
+        byte type = region.get(offset + 8);
+        ByteBuffer payload = region.slice(offset + RECORD_HEADER_SIZE, length).asReadOnlyBuffer();
+
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != region.getInt(offset + 4)) {
+            return null;
+        }
+        return new JournalRecord(current, type, payload, current + RECORD_HEADER_SIZE + length);
+    }
+
+    private int offset(long recordPosition) {
+        return (int) (recordPosition % regionSize);
+    }
+
+    private MappedByteBuffer region(long recordPosition) throws IOException {
+        int index = (int) (recordPosition / regionSize);
+        lock.lock();
+        try {
+            while (regions.size() <= index) {
+                regions.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) regions.size() * regionSize, regionSize));
+            }
+            return regions.get(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A record read from the journal
+     * @param position : position of the record
+     * @param type
+     * @param payload : read-only view of the payload
+     * @param nextPosition : position right after the record
+     */
+    public record JournalRecord(long position, byte type, ByteBuffer payload, long nextPosition) {
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(JournalRecord record) throws IOException;
+    }
+}
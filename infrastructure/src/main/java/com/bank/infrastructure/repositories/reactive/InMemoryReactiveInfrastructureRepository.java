@@ -0,0 +1,129 @@
+package com.bank.infrastructure.repositories.reactive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import com.bank.domain.Account;
+import com.bank.domain.enums.AccountType;
+import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
+import com.bank.infrastructure.entities.MonthlySummaryId;
+import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.repositories.ReactiveInfrastructureRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive adapter keeping the accounts in memory, for tests and for nodes without a database.
+ * Each account is an immutable entry replaced atomically by ConcurrentHashMap.compute, so no
+ * caller ever waits on a lock. Writes are not transactional : each one is atomic on its own.
+ */
+@Repository
+@ConditionalOnProperty(name = "bank.reactive.repository", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryReactiveInfrastructureRepository implements ReactiveInfrastructureRepository {
+
+    private static final String SEED_ACCOUNT_NUMBER = "1";
+
+    private record StoredAccount(String accountNumber, BigDecimal balance, AccountType accountType,
+                                 BigDecimal authorizedOverdraw, BigDecimal overdraw, long version) {
+
+        private AccountEntity toEntity() {
+            return AccountEntity.of(accountNumber, balance, accountType, authorizedOverdraw, overdraw, version);
+        }
+    }
+
+    private final Map<String, StoredAccount> accounts = new ConcurrentHashMap<>();
+    private final Map<String, Queue<OperationEntity>> operations = new ConcurrentHashMap<>();
+    private final Map<MonthlySummaryId, MonthlySummaryEntity> summaries = new ConcurrentHashMap<>();
+    private final AtomicLong operationIds = new AtomicLong();
+
+    public InMemoryReactiveInfrastructureRepository() {
+        BigDecimal zero = new BigDecimal("0.00");
+        accounts.put(SEED_ACCOUNT_NUMBER, new StoredAccount(SEED_ACCOUNT_NUMBER, zero, AccountType.CURRENT_ACCOUNT, zero, zero, 0));
+    }
+
+    @Override
+    public Mono<AccountEntity> findAccount(String accountNumber) {
+        return Mono.fromSupplier(() -> accounts.get(accountNumber)).map(StoredAccount::toEntity);
+    }
+
+    @Override
+    public Mono<Void> save(AccountEntity accountEntity) {
+        return Mono.fromRunnable(() -> {
+            Account account = accountEntity.toDomain();
+            boolean[] saved = new boolean[1];
+            accounts.computeIfPresent(account.getAccountNumber(), (accountNumber, stored) -> {
+                if (!Objects.equals(stored.version(), accountEntity.getVersion())) {
+                    return stored;
+                }
+                saved[0] = true;
+                return new StoredAccount(accountNumber, account.getBalance(), account.getAccountType(),
+                                         account.getAuthorizedOverdraw(), account.getOverdraw(), stored.version() + 1);
+            });
+            if (!saved[0]) {
+                throw new OptimisticLockingFailureException("The account " + account.getAccountNumber() + " was updated concurrently");
+            }
+        });
+    }
+
+    @Override
+    public Mono<BigDecimal> applyBalanceChange(String accountNumber, BigDecimal delta) {
+        return Mono.fromSupplier(() -> {
+            BigDecimal[] newBalance = new BigDecimal[1];
+            accounts.computeIfPresent(accountNumber, (number, stored) -> {
+                BigDecimal balance = stored.balance().add(delta);
+                BigDecimal authorizedOverdraw = Objects.requireNonNullElse(stored.authorizedOverdraw(), BigDecimal.ZERO);
+                if (delta.signum() < 0 && balance.add(authorizedOverdraw).signum() < 0) {
+                    return stored;
+                }
+                newBalance[0] = balance;
+                return new StoredAccount(number, balance, stored.accountType(), stored.authorizedOverdraw(),
+                                         stored.overdraw(), stored.version() + 1);
+            });
+            return newBalance[0];
+        });
+    }
+
+    @Override
+    public Mono<Void> saveOperation(String accountNumber, OperationEntity operationEntity) {
+        return Mono.fromRunnable(() -> {
+            operationEntity.setAccountNumber(accountNumber);
+            operationEntity.setOperationId(operationIds.incrementAndGet());
+            operations.computeIfAbsent(accountNumber, number -> new ConcurrentLinkedQueue<>()).add(operationEntity);
+        });
+    }
+
+    @Override
+    public Mono<Void> addToMonthlySummary(MonthlySummaryEntity summaryDelta) {
+        return Mono.fromRunnable(() -> summaries.merge(
+            new MonthlySummaryId(summaryDelta.getAccountNumber(), summaryDelta.getYear(), summaryDelta.getMonth()),
+            summaryDelta,
+            MonthlySummaryEntity::plus));
+    }
+
+    @Override
+    public Flux<OperationEntity> findOperationsByMonthAndYear(String accountNumber, int month, int year) {
+        LocalDate start = LocalDate.of(year, month, 1);
+        LocalDate end = start.plusMonths(1);
+        return Flux.defer(() -> Flux.fromIterable(operations.getOrDefault(accountNumber, new ConcurrentLinkedQueue<>())))
+            .filter(operation -> !operation.getDate().isBefore(start) && operation.getDate().isBefore(end))
+            .sort(Comparator.comparing(OperationEntity::getDate).reversed());
+    }
+
+    @Override
+    public <T> Mono<T> inTransaction(Mono<T> work) {
+        return work;
+    }
+}
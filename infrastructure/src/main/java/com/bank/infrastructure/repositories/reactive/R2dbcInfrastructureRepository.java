@@ -0,0 +1,174 @@
+package com.bank.infrastructure.repositories.reactive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.bank.domain.Account;
+import com.bank.domain.Operation;
+import com.bank.domain.enums.AccountType;
+import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
+import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.repositories.ReactiveInfrastructureRepository;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive adapter on the same tables as the JPA adapter, through a non-blocking R2DBC driver.
+ * The statements are the ones of the JPA adapter : conditional updates, upserts and range queries.
+ */
+@Repository
+@ConditionalOnProperty(name = "bank.reactive.repository", havingValue = "r2dbc")
+public class R2dbcInfrastructureRepository implements ReactiveInfrastructureRepository {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public R2dbcInfrastructureRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Override
+    public Mono<AccountEntity> findAccount(String accountNumber) {
+        return databaseClient.sql("SELECT account_number, balance, account_type, authorized_overdraw, overdraw, version "
+                                + "FROM account WHERE account_number = :accountNumber")
+            .bind("accountNumber", accountNumber)
+            .map(R2dbcInfrastructureRepository::toAccount)
+            .one();
+    }
+
+    /**
+     * The version check and the update are a single conditional statement
+     */
+    @Override
+    public Mono<Void> save(AccountEntity accountEntity) {
+        Account account = accountEntity.toDomain();
+        return databaseClient.sql("UPDATE account SET balance = :balance, account_type = :accountType, "
+                                + "authorized_overdraw = :authorizedOverdraw, overdraw = :overdraw, version = version + 1 "
+                                + "WHERE account_number = :accountNumber AND version = :version")
+            .bind("balance", account.getBalance())
+            .bind("accountType", account.getAccountType().name())
+            .bind("authorizedOverdraw", account.getAuthorizedOverdraw())
+            .bind("overdraw", account.getOverdraw())
+            .bind("accountNumber", account.getAccountNumber())
+            .bind("version", accountEntity.getVersion())
+            .fetch()
+            .rowsUpdated()
+            .flatMap(updated -> updated == 1
+                ? Mono.<Void>empty()
+                : Mono.error(new OptimisticLockingFailureException("The account " + account.getAccountNumber() + " was updated concurrently")));
+    }
+
+    @Override
+    public Mono<BigDecimal> applyBalanceChange(String accountNumber, BigDecimal delta) {
+        return databaseClient.sql("UPDATE account SET balance = balance + :delta, version = version + 1 "
+                                + "WHERE account_number = :accountNumber "
+                                + "AND (:delta >= 0 OR balance + COALESCE(authorized_overdraw, 0) + :delta >= 0) "
+                                + "RETURNING balance")
+            .bind("delta", delta)
+            .bind("accountNumber", accountNumber)
+            .map(row -> row.get("balance", BigDecimal.class))
+            .one();
+    }
+
+    /**
+     * The id is taken straight from operation_seq : it is never part of a block pooled by Hibernate,
+     * which only uses the values below the ones it fetched.
+     * The label is inserted in operation_label if it is new, then its id is read by the operation insert
+     * (a separate statement, so it sees the label a concurrent transaction committed meanwhile).
+     */
+    @Override
+    public Mono<Void> saveOperation(String accountNumber, OperationEntity operationEntity) {
+        Operation operation = operationEntity.toDomain();
+        if (operation.getLabel() == null) {
+            return databaseClient.sql("INSERT INTO operation (operation_id, account_number, amount, label_id, date) "
+                                    + "VALUES (nextval('operation_seq'), :accountNumber, :amount, NULL, :date)")
+                .bind("accountNumber", accountNumber)
+                .bind("amount", operation.getAmount())
+                .bind("date", operation.getDate().atStartOfDay())
+                .then();
+        }
+        return databaseClient.sql("INSERT INTO operation_label (label_id, label) "
+                                + "VALUES (nextval('operation_label_seq'), :label) ON CONFLICT (label) DO NOTHING")
+            .bind("label", operation.getLabel())
+            .then()
+            .then(databaseClient.sql("INSERT INTO operation (operation_id, account_number, amount, label_id, date) "
+                                   + "VALUES (nextval('operation_seq'), :accountNumber, :amount, "
+                                   + "(SELECT label_id FROM operation_label WHERE label = :label), :date)")
+                .bind("accountNumber", accountNumber)
+                .bind("amount", operation.getAmount())
+                .bind("label", operation.getLabel())
+                .bind("date", operation.getDate().atStartOfDay())
+                .then());
+    }
+
+    @Override
+    public Mono<Void> addToMonthlySummary(MonthlySummaryEntity summaryDelta) {
+        return databaseClient.sql("INSERT INTO monthly_summary (account_number, summary_year, summary_month, deposit_count, "
+                                + "withdrawal_count, total_deposits, total_withdrawals) "
+                                + "VALUES (:accountNumber, :year, :month, :depositCount, :withdrawalCount, :totalDeposits, :totalWithdrawals) "
+                                + "ON CONFLICT (account_number, summary_year, summary_month) DO UPDATE SET "
+                                + "deposit_count = monthly_summary.deposit_count + EXCLUDED.deposit_count, "
+                                + "withdrawal_count = monthly_summary.withdrawal_count + EXCLUDED.withdrawal_count, "
+                                + "total_deposits = monthly_summary.total_deposits + EXCLUDED.total_deposits, "
+                                + "total_withdrawals = monthly_summary.total_withdrawals + EXCLUDED.total_withdrawals")
+            .bind("accountNumber", summaryDelta.getAccountNumber())
+            .bind("year", summaryDelta.getYear())
+            .bind("month", summaryDelta.getMonth())
+            .bind("depositCount", summaryDelta.getDepositCount())
+            .bind("withdrawalCount", summaryDelta.getWithdrawalCount())
+            .bind("totalDeposits", summaryDelta.getTotalDeposits())
+            .bind("totalWithdrawals", summaryDelta.getTotalWithdrawals())
+            .then();
+    }
+
+    @Override
+    public Flux<OperationEntity> findOperationsByMonthAndYear(String accountNumber, int month, int year) {
+        LocalDate start = LocalDate.of(year, month, 1);
+        return databaseClient.sql("SELECT o.operation_id, o.account_number, o.amount, l.label, o.date FROM operation o "
+                                + "LEFT JOIN operation_label l ON l.label_id = o.label_id "
+                                + "WHERE o.account_number = :accountNumber AND o.date >= :start AND o.date < :end "
+                                + "ORDER BY o.date DESC")
+            .bind("accountNumber", accountNumber)
+            .bind("start", start.atStartOfDay())
+            .bind("end", start.plusMonths(1).atStartOfDay())
+            .map(R2dbcInfrastructureRepository::toOperation)
+            .all();
+    }
+
+    @Override
+    public <T> Mono<T> inTransaction(Mono<T> work) {
+        return transactionalOperator.transactional(work);
+    }
+
+    private static AccountEntity toAccount(Readable row) {
+        return AccountEntity.of(row.get("account_number", String.class),
+                                row.get("balance", BigDecimal.class),
+                                AccountType.valueOf(row.get("account_type", String.class)),
+                                row.get("authorized_overdraw", BigDecimal.class),
+                                row.get("overdraw", BigDecimal.class),
+                                row.get("version", Long.class));
+    }
+
+    private static OperationEntity toOperation(Readable row) {
+        OperationEntity operationEntity = new OperationEntity().fromDomain(new Operation(
+            row.get("date", LocalDateTime.class).toLocalDate(),
+            row.get("amount", BigDecimal.class),
+            row.get("label", String.class)));
+        operationEntity.setOperationId(row.get("operation_id", Long.class));
+        operationEntity.setAccountNumber(row.get("account_number", String.class));
+        return operationEntity;
+    }
+}
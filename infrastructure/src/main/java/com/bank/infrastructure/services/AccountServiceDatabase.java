@@ -1,132 +1,556 @@
 package com.bank.infrastructure.services;
 
 import com.bank.adapters.dto.OperationDTO;
+import com.bank.adapters.dto.OperationPageDTO;
+import com.bank.adapters.dto.OperationResultDTO;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.time.LocalDate;
+import java.time.YearMonth;
 
 import com.bank.adapters.dto.MonthlyReviewDTO;
+import com.bank.adapters.dto.MonthlySummaryDTO;
 import com.bank.adapters.mappers.BankMapper;
 
+import com.bank.infrastructure.cache.AccountSnapshot;
+import com.bank.infrastructure.cache.HotAccountCache;
 import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
 import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.ledger.LedgerEngine;
 
 import com.bank.domain.Operation;
 import com.bank.domain.Account;
-import com.bank.domain.MonthlyReview;
+import com.bank.domain.Money;
 
 import com.bank.infrastructure.repositories.InfrastructureRepository;
+import com.bank.infrastructure.services.GroupCommitWriter.Outcome;
 
 import java.math.BigDecimal;
 
 @Service
 @Transactional
+@Timed(value = "bank.service", histogram = true)
 public class AccountServiceDatabase {
 
     private final InfrastructureRepository infrastructureRepository;
-    private final BankMapper bankMapper;;
+    private final BankMapper bankMapper;
+    private final HotAccountCache hotAccountCache;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final Counter rejectedDeposits;
+    private final Counter rejectedWithdrawals;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary groupCommitSizes;
+    // null unless bank.group-commit.enabled
+    private final GroupCommitWriter<PendingOperation, BigDecimal> groupCommitWriter;
+    // null unless bank.ledger.enabled
+    private final LedgerEngine ledgerEngine;
 
-    public AccountServiceDatabase(InfrastructureRepository infrastructureRepository, BankMapper bankMapper) {
+    public AccountServiceDatabase(InfrastructureRepository infrastructureRepository, BankMapper bankMapper,
+                                  HotAccountCache hotAccountCache, OptimisticRetryExecutor optimisticRetryExecutor,
+                                  MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                                  @Value("${bank.group-commit.enabled:false}") boolean groupCommit,
+                                  @Value("${bank.group-commit.max-batch-size:256}") int groupCommitMaxBatchSize,
+                                  @Value("${bank.group-commit.max-wait-us:200}") long groupCommitMaxWaitMicros,
+                                  @Value("${bank.group-commit.queue-capacity:10000}") int groupCommitQueueCapacity,
+                                  Optional<LedgerEngine> ledgerEngine) {
         this.infrastructureRepository = infrastructureRepository;
         this.bankMapper = bankMapper;
+        this.hotAccountCache = hotAccountCache;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.rejectedDeposits = rejectedCounter(meterRegistry, "deposit");
+        this.rejectedWithdrawals = rejectedCounter(meterRegistry, "withdrawal");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.groupCommitSizes = DistributionSummary.builder("bank.group-commit.size")
+            .description("Deposits and withdrawals committed together by the group commit writer")
+            .register(meterRegistry);
+        this.groupCommitWriter = groupCommit
+            ? new GroupCommitWriter<>("group-commit-writer", groupCommitMaxBatchSize, groupCommitMaxWaitMicros,
+                                      groupCommitQueueCapacity, this::commitGroup)
+            : null;
+        this.ledgerEngine = ledgerEngine.orElse(null);
     }
 
     /**
-     * Calling entityManager to get default account number
+     * Lets the group commit writer commit its current batch and fails the operations still queued
+     */
+    @PreDestroy
+    public void close() {
+        if (groupCommitWriter != null) {
+            groupCommitWriter.close();
+        }
+    }
+
+    /**
+     * Calling entityManager to get the account number
      * @return Account number
+     * @throws NoSuchElementException if the account does not exist
      */
-    public String getAccountNumber() {
-        return infrastructureRepository.findDefaultAccount().get().toDomain().getAccountNumber();
+    public String getAccountNumber(String accountNumber) {
+        return findAccount(accountNumber).accountNumber();
     }
 
     /**
-     * Calling entityManager to get default balance
+     * Calling entityManager to get the balance of an account
      * @return balance
+     * @throws NoSuchElementException if the account does not exist
      */
-    public BigDecimal getBalance() {
-        return infrastructureRepository.findDefaultAccount().get().toDomain().getBalance();
+    public BigDecimal getBalance(String accountNumber) {
+        return findAccount(accountNumber).balance();
     }
 
     /**
-     * Calling entityManager to get default authorized over withdrawal
+     * Calling entityManager to get the authorized over withdrawal of an account
      * @return over withdrawal
+     * @throws NoSuchElementException if the account does not exist
      */
-    public BigDecimal getAuthorizedOverdraw() {
-        return infrastructureRepository.findDefaultAccount().get().toDomain().getAuthorizedOverdraw();
+    public BigDecimal getAuthorizedOverdraw(String accountNumber) {
+        return findAccount(accountNumber).authorizedOverdraw();
     }
 
     /**
-     * Calling entityManager to get default overdraw
+     * Calling entityManager to get the overdraw of an account
      * @return overdraw
+     * @throws NoSuchElementException if the account does not exist
      */
-    public BigDecimal getOverdraw() {
-        return infrastructureRepository.findDefaultAccount().get().toDomain().getOverdraw();
+    public BigDecimal getOverdraw(String accountNumber) {
+        return findAccount(accountNumber).overdraw();
     }
 
     /**
-     * Calling entityManager to update the authorized overdraw
+     * Calling entityManager to update the authorized overdraw : the account is read without lock, and
+     * the update is retried in a new transaction if the version of the account changed in between
+     * @throws NoSuchElementException if the account does not exist
      */
-    public void setAuthorizedOverdraw(BigDecimal authorizedOverdraw) {
-        AccountEntity accountEntity = infrastructureRepository.findDefaultAccount().get();
-        Account accountToUpdate = accountEntity.toDomain();
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void setAuthorizedOverdraw(String accountNumber, BigDecimal authorizedOverdraw) {
+        optimisticRetryExecutor.run(() -> {
+            AccountEntity accountEntity = infrastructureRepository.findAccount(accountNumber)
+                .orElseThrow(() -> unknownAccount(accountNumber));
+            Account accountToUpdate = accountEntity.toDomain();
 
-        accountToUpdate.setAuthorizedOverdraw(authorizedOverdraw);
+            accountToUpdate.setAuthorizedOverdraw(authorizedOverdraw);
 
-        accountEntity = accountEntity.fromDomain(accountToUpdate);
-        infrastructureRepository.save(accountEntity);
+            infrastructureRepository.save(accountEntity.fromDomain(accountToUpdate));
+            writeThrough(accountNumber, () -> hotAccountCache.write(accountNumber, AccountSnapshot.of(accountToUpdate)));
+        });
     }
 
     /**
-     * Calling entityManager to make a deposit, save the account and a new operation
+     * Calling entityManager to make a deposit : the balance is updated by a single conditional statement,
+     * the new operation is inserted and the summary of its month updated in the same transaction.
+     * With group commit, the deposit is committed by the group commit writer with the operations queued
+     * at the same time, and an account of the ledger engine goes through its writer, unless the caller
+     * already runs a transaction, which the deposit joins.
+     * @throws NoSuchElementException if the account does not exist
      */
-    public BigDecimal deposit(LocalDate date, BigDecimal amount) throws IllegalArgumentException {
-        AccountEntity accountEntity = infrastructureRepository.findDefaultAccount().get();
-        Account accountToUpdate = accountEntity.toDomain();
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public BigDecimal deposit(String accountNumber, LocalDate date, BigDecimal amount) throws IllegalArgumentException {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            rejectedDeposits.increment();
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        if (isLedgerOwned(accountNumber)) {
+            try {
+                return ledgerEngine.deposit(accountNumber, date, amount);
+            } catch (IllegalArgumentException e) {
+                rejectedDeposits.increment();
+                throw e;
+            }
+        }
+        if (isGroupCommitted()) {
+            return groupCommitWriter.submit(new PendingOperation(accountNumber, date, amount, "Deposit", true));
+        }
+        return transactionTemplate.execute(status -> applyDeposit(accountNumber, date, amount));
+    }
 
-        BigDecimal newBalance = accountToUpdate.deposit(date, amount);
+    private BigDecimal applyDeposit(String accountNumber, LocalDate date, BigDecimal amount) {
+        BigDecimal newBalance = infrastructureRepository.applyBalanceChange(accountNumber, amount)
+            .orElseThrow(() -> rejected(accountNumber, "Deposit rejected", rejectedDeposits));
 
-        OperationEntity operation = new OperationEntity().fromDomain(new Operation(date, amount, "Deposit"));
-        accountEntity = accountEntity.fromDomain(accountToUpdate);
-        operation.setAccountEntity(accountEntity);
-        accountEntity.addOperation(operation);
-        infrastructureRepository.save(accountEntity);
+        Operation deposit = new Operation(date, amount, "Deposit");
+        infrastructureRepository.saveOperation(accountNumber, new OperationEntity().fromDomain(deposit));
+        infrastructureRepository.addToMonthlySummary(MonthlySummaryEntity.of(accountNumber, deposit.getDate()).addDeposit(amount));
+        writeThrough(accountNumber, () -> hotAccountCache.writeBalance(accountNumber, newBalance));
 
         return newBalance;
     }
 
     /**
-     * Calling entityManager to make a withdrawal, save the account and a new operation
+     * Calling entityManager to make a withdrawal : the overdraw guard and the balance update are
+     * a single conditional statement, the new operation is inserted and the summary of its month updated
+     * in the same transaction.
+     * With group commit, the withdrawal is committed by the group commit writer with the operations queued
+     * at the same time, and an account of the ledger engine goes through its writer, unless the caller
+     * already runs a transaction, which the withdrawal joins.
+     * @throws NoSuchElementException if the account does not exist
      */
-    public BigDecimal withdraw(LocalDate date, BigDecimal amount, String label) throws IllegalArgumentException {
-        AccountEntity accountEntity = infrastructureRepository.findDefaultAccount().get();
-        Account accountToUpdate = accountEntity.toDomain();
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public BigDecimal withdraw(String accountNumber, LocalDate date, BigDecimal amount, String label) throws IllegalArgumentException {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            rejectedWithdrawals.increment();
+            throw new IllegalArgumentException("Withdraw amount must be positive and inferior to balance");
+        }
+        if (isLedgerOwned(accountNumber)) {
+            try {
+                return ledgerEngine.withdraw(accountNumber, date, amount, label);
+            } catch (IllegalArgumentException e) {
+                rejectedWithdrawals.increment();
+                throw e;
+            }
+        }
+        if (isGroupCommitted()) {
+            return groupCommitWriter.submit(new PendingOperation(accountNumber, date, amount, label, false));
+        }
+        return transactionTemplate.execute(status -> applyWithdrawal(accountNumber, date, amount, label));
+    }
 
-        BigDecimal newBalance = accountToUpdate.withdraw(date, amount, label);
+    private BigDecimal applyWithdrawal(String accountNumber, LocalDate date, BigDecimal amount, String label) {
+        BigDecimal newBalance = infrastructureRepository.applyBalanceChange(accountNumber, amount.negate())
+            .orElseThrow(() -> rejected(accountNumber, "Withdraw amount must be positive and inferior to balance", rejectedWithdrawals));
 
-        OperationEntity operation = new OperationEntity().fromDomain(new Operation(date, amount, label));
-        accountEntity = accountEntity.fromDomain(accountToUpdate);
-        operation.setAccountEntity(accountEntity);
-        accountEntity.addOperation(operation);
-        infrastructureRepository.save(accountEntity);
+        Operation withdrawal = new Operation(date, amount, label);
+        infrastructureRepository.saveOperation(accountNumber, new OperationEntity().fromDomain(withdrawal));
+        infrastructureRepository.addToMonthlySummary(MonthlySummaryEntity.of(accountNumber, withdrawal.getDate()).addWithdrawal(amount));
+        writeThrough(accountNumber, () -> hotAccountCache.writeBalance(accountNumber, newBalance));
 
         return newBalance;
     }
 
+    /**
+     * Calling entityManager to apply a batch of operations in a single transaction : the account row is
+     * locked once (a large batch is not worth replaying on a version conflict), the operations are applied in order through the domain rules, then the balance is
+     * written once, the accepted operations are inserted as JDBC batches and each month summary is updated once.
+     * A positive amount is a deposit, a negative amount is a withdrawal. A rejected operation leaves the
+     * balance unchanged and does not stop the batch.
+     * @return the result of each operation, in the order of the batch
+     * @throws NoSuchElementException if the account does not exist
+     */
+    public List<OperationResultDTO> applyOperations(String accountNumber, List<OperationDTO> operations) {
+        AccountEntity accountEntity = infrastructureRepository.findAccountForUpdate(accountNumber)
+            .orElseThrow(() -> unknownAccount(accountNumber));
+        Account account = accountEntity.toDomain();
+
+        List<OperationResultDTO> results = new ArrayList<>(operations.size());
+        List<OperationEntity> accepted = new ArrayList<>(operations.size());
+        Map<YearMonth, MonthlySummaryEntity> summaries = new LinkedHashMap<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            OperationDTO operation = operations.get(i);
+            BigDecimal amount = operation.getAmount();
+            try {
+                if (amount == null || amount.signum() == 0) {
+                    throw new IllegalArgumentException("The amount must not be null or zero");
+                }
+                Money money = Money.of(amount);
+                BigDecimal balance = money.isPositive()
+                    ? apply(account, true, operation.getDate(), money, Objects.requireNonNullElse(operation.getLabel(), "Deposit"), accepted, summaries)
+                    : apply(account, false, operation.getDate(), money.negate(), operation.getLabel(), accepted, summaries);
+                results.add(OperationResultDTO.applied(i, balance));
+            } catch (IllegalArgumentException e) {
+                (amount != null && amount.signum() < 0 ? rejectedWithdrawals : rejectedDeposits).increment();
+                results.add(OperationResultDTO.rejected(i, account.getBalance(), e.getMessage()));
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            writeAccount(accountEntity, account, accepted, summaries);
+        }
+        return results;
+    }
+
+    /**
+     * Commits a group of deposits and withdrawals queued by the group commit writer, in one transaction :
+     * each account is locked once, in the order of the account numbers so that concurrent writers can not
+     * deadlock, its operations are checked in their queue order against the domain rules, then it is
+     * written once like a batch of operations
+     * @return the new balance, or the error refusing the operation, for each operation
+     */
+    private List<Outcome<BigDecimal>> commitGroup(List<PendingOperation> operations) {
+        groupCommitSizes.record(operations.size());
+        Map<String, List<Integer>> indexesByAccount = new TreeMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            indexesByAccount.computeIfAbsent(operations.get(i).accountNumber(), number -> new ArrayList<>()).add(i);
+        }
+
+        return transactionTemplate.execute(status -> {
+            List<Outcome<BigDecimal>> outcomes = new ArrayList<>(Collections.nCopies(operations.size(), null));
+            indexesByAccount.forEach((accountNumber, indexes) -> {
+                Optional<AccountEntity> accountEntity = infrastructureRepository.findAccountForUpdate(accountNumber);
+                if (accountEntity.isEmpty()) {
+                    indexes.forEach(i -> outcomes.set(i, Outcome.failed(unknownAccount(accountNumber))));
+                    return;
+                }
+                Account account = accountEntity.get().toDomain();
+                List<OperationEntity> accepted = new ArrayList<>(indexes.size());
+                Map<YearMonth, MonthlySummaryEntity> summaries = new LinkedHashMap<>();
+
+                for (int i : indexes) {
+                    PendingOperation operation = operations.get(i);
+                    try {
+                        outcomes.set(i, Outcome.of(apply(account, operation.deposit(), operation.date(),
+                                                         Money.of(operation.amount()), operation.label(), accepted, summaries)));
+                    } catch (IllegalArgumentException e) {
+                        (operation.deposit() ? rejectedDeposits : rejectedWithdrawals).increment();
+                        outcomes.set(i, Outcome.failed(e));
+                    }
+                }
+                if (!accepted.isEmpty()) {
+                    writeAccount(accountEntity.get(), account, accepted, summaries);
+                }
+            });
+            return outcomes;
+        });
+    }
+
+    /**
+     * Applies a deposit or a withdrawal to an account read for update, and keeps the operation and its
+     * month summary for the write of the account
+     * @param amount : positive amount
+     * @return the new balance
+     * @throws IllegalArgumentException if the domain rules refuse the operation
+     */
+    private static BigDecimal apply(Account account, boolean deposit, LocalDate date, Money amount, String label,
+                                    List<OperationEntity> accepted, Map<YearMonth, MonthlySummaryEntity> summaries) {
+        Operation applied = new Operation(date, amount, label);
+        BigDecimal balance;
+        if (deposit) {
+            balance = account.deposit(date, amount).toBigDecimal();
+            monthlySummary(summaries, account.getAccountNumber(), applied).addDeposit(amount.toBigDecimal());
+        } else {
+            balance = account.withdraw(date, amount, label).toBigDecimal();
+            monthlySummary(summaries, account.getAccountNumber(), applied).addWithdrawal(amount.toBigDecimal());
+        }
+        accepted.add(new OperationEntity().fromDomain(applied));
+        return balance;
+    }
+
+    /**
+     * Writes the balance of an account once, inserts its accepted operations as JDBC batches and updates
+     * each month summary once
+     */
+    private void writeAccount(AccountEntity accountEntity, Account account, List<OperationEntity> accepted,
+                              Map<YearMonth, MonthlySummaryEntity> summaries) {
+        String accountNumber = account.getAccountNumber();
+        infrastructureRepository.save(accountEntity.fromDomain(account));
+        infrastructureRepository.saveOperations(accountNumber, accepted);
+        summaries.values().forEach(infrastructureRepository::addToMonthlySummary);
+        writeThrough(accountNumber, () -> hotAccountCache.write(accountNumber, AccountSnapshot.of(account)));
+    }
+
+    /**
+     * A caller already running a transaction (an Idempotency-Key request) keeps its operation in it
+     */
+    private boolean isGroupCommitted() {
+        return groupCommitWriter != null && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private boolean isLedgerOwned(String accountNumber) {
+        return ledgerEngine != null && ledgerEngine.owns(accountNumber) && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
     /**
      * Calling entityManager to get operations within a month and form a MonthlyReviewDTO
      * @return MonthlyReviewDTO
+     * @throws NoSuchElementException if the account does not exist
      */
-    public MonthlyReviewDTO getMonthlyOperations() {
-        List<OperationDTO> operationsThisMonth = infrastructureRepository.findOperationsByMonthAndYear().stream()
+    public MonthlyReviewDTO getMonthlyOperations(String accountNumber) {
+        AccountSnapshot account = findAccount(accountNumber);
+        LocalDate today = LocalDate.now();
+
+        List<OperationDTO> operationsThisMonth = infrastructureRepository
+         .findOperationsByMonthAndYear(accountNumber, today.getMonthValue(), today.getYear())
+         .stream()
          .map(opEntity -> {
              return bankMapper.toOperationDTO(opEntity.toDomain());
          })
          .toList();
-        Account account = infrastructureRepository.findDefaultAccount().get().toDomain();
 
-        return new MonthlyReviewDTO(operationsThisMonth,
-                                                       account.getBalance(),
-                                                       account.getAccountType());
+        MonthlyReviewDTO monthlyReviewDTO = new MonthlyReviewDTO(operationsThisMonth,
+                                                       account.balance(),
+                                                       account.accountType());
+        monthlyReviewDTO.setSummary(getMonthlySummary(accountNumber, today.getYear(), today.getMonthValue()));
+        return monthlyReviewDTO;
+    }
+
+    /**
+     * Calling entityManager to get a page of the operation history, most recent first. One more operation
+     * than the page size is read, to know whether there is a next page.
+     * @param cursor : cursor returned with the previous page, or null for the first page
+     * @param pageSize
+     * @return OperationPageDTO
+     * @throws IllegalArgumentException if the cursor is invalid
+     * @throws NoSuchElementException if the account does not exist
+     */
+    public OperationPageDTO getOperationHistory(String accountNumber, String cursor, int pageSize) {
+        findAccount(accountNumber);
+        OperationCursor before = cursor == null ? null : OperationCursor.decode(cursor);
+
+        List<OperationEntity> operations = infrastructureRepository.findOperationsBefore(accountNumber,
+            before == null ? null : before.date(),
+            before == null ? null : before.operationId(),
+            pageSize + 1);
+
+        List<OperationEntity> page = operations.subList(0, Math.min(pageSize, operations.size()));
+        String nextCursor = null;
+        if (operations.size() > pageSize) {
+            OperationEntity last = page.get(page.size() - 1);
+            nextCursor = new OperationCursor(last.getDate(), last.getOperationId()).encode();
+        }
+        return new OperationPageDTO(page.stream().map(opEntity -> bankMapper.toOperationDTO(opEntity.toDomain())).toList(),
+                                    nextCursor);
+    }
+
+    /**
+     * Calling entityManager to stream the operations of an account between two dates, oldest first : the
+     * operations are read through a cursor and handed over one at a time, none of them is kept
+     * @param consumer : called for each operation
+     * @return the number of operations
+     * @throws NoSuchElementException if the account does not exist
+     */
+    public long exportOperations(String accountNumber, LocalDate from, LocalDate to, Consumer<OperationDTO> consumer) {
+        findAccount(accountNumber);
+        return infrastructureRepository.forEachOperation(accountNumber, from, to,
+            operationEntity -> consumer.accept(bankMapper.toOperationDTO(operationEntity.toDomain())));
+    }
+
+    /**
+     * Calling entityManager to get the summary of a month, a single lookup whatever the number of operations
+     * @return MonthlySummaryDTO, with zero counts and no closing balance if there is no operation in the month
+     * @throws NoSuchElementException if the account does not exist
+     */
+    public MonthlySummaryDTO getMonthlySummary(String accountNumber, int year, int month) {
+        findAccount(accountNumber);
+        return infrastructureRepository.findMonthlySummary(accountNumber, month, year)
+            .map(summary -> new MonthlySummaryDTO(year, month,
+                                                  summary.getDepositCount(), summary.getWithdrawalCount(),
+                                                  summary.getTotalDeposits(), summary.getTotalWithdrawals(),
+                                                  summary.getClosingBalance()))
+            .orElseGet(() -> new MonthlySummaryDTO(year, month, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, null));
+    }
+
+    /**
+     * Counters of the hot account cache, which serves the balance, account number and overdraw reads
+     * @return cache statistics
+     */
+    public HotAccountCache.CacheStatistics getCacheStatistics() {
+        return hotAccountCache.statistics();
+    }
+
+    /**
+     * Read an account from the snapshot published by the ledger engine, or through the hot account cache,
+     * loading it from the database on a miss
+     */
+    private AccountSnapshot findAccount(String accountNumber) {
+        if (ledgerEngine != null) {
+            Optional<AccountSnapshot> published = ledgerEngine.snapshot(accountNumber);
+            if (published.isPresent()) {
+                return published.get();
+            }
+        }
+        return hotAccountCache.get(accountNumber).orElseGet(() -> {
+            long stamp = hotAccountCache.stamp(accountNumber);
+            AccountSnapshot account = AccountSnapshot.of(infrastructureRepository.findAccount(accountNumber)
+                .orElseThrow(() -> unknownAccount(accountNumber))
+                .toDomain());
+            hotAccountCache.put(accountNumber, account, stamp);
+            return account;
+        });
+    }
+
+    /**
+     * The new state is written to the cache just before the commit, while the transaction still holds the
+     * row lock of the account : concurrent writers of the same account reach the cache in commit order.
+     * Loads of the account may still read the row as it was before the commit, so the write is confirmed
+     * once committed, which drops anything such a load put in between. If the transaction does not commit
+     * after all, the account is evicted.
+     * The ledger engine drops its state of the account once the transaction is over, as it was written without it.
+     */
+    private void writeThrough(String accountNumber, Supplier<AccountSnapshot> write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.get();
+            forgetInLedger(accountNumber);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private AccountSnapshot written;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                written = write.get();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    hotAccountCache.confirm(accountNumber, written);
+                } else {
+                    hotAccountCache.evict(accountNumber);
+                }
+                forgetInLedger(accountNumber);
+            }
+        });
+    }
+
+    private void forgetInLedger(String accountNumber) {
+        if (ledgerEngine != null && ledgerEngine.owns(accountNumber)) {
+            ledgerEngine.forget(accountNumber);
+        }
+    }
+
+    /**
+     * A conditional update matching no row is either an unknown account or a broken rule
+     */
+    private RuntimeException rejected(String accountNumber, String message, Counter rejections) {
+        if (infrastructureRepository.findAccount(accountNumber).isEmpty()) {
+            return unknownAccount(accountNumber);
+        }
+        rejections.increment();
+        return new IllegalArgumentException(message);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("bank.operations.rejected")
+            .description("Operations refused by the amount or overdraw rules")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    private static MonthlySummaryEntity monthlySummary(Map<YearMonth, MonthlySummaryEntity> summaries,
+                                                       String accountNumber, Operation operation) {
+        return summaries.computeIfAbsent(YearMonth.from(operation.getDate()),
+                                         month -> MonthlySummaryEntity.of(accountNumber, operation.getDate()));
+    }
+
+    private static NoSuchElementException unknownAccount(String accountNumber) {
+        return new NoSuchElementException("No account with the number " + accountNumber);
+    }
+
+    /**
+     * Deposit or withdrawal waiting in the group commit writer
+     * @param amount : positive amount
+     */
+    private record PendingOperation(String accountNumber, LocalDate date, BigDecimal amount, String label, boolean deposit) {
     }
 }
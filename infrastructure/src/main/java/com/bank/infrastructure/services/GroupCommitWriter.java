@@ -0,0 +1,187 @@
+package com.bank.infrastructure.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Group commit : operations submitted concurrently are queued and committed together by a single writer
+ * thread, one transaction (and one commit flush) for up to maxBatchSize operations. The writer takes the
+ * operations already queued, waits at most maxWait for more, then hands the batch to the commit function.
+ * Each caller waits for the commit of its batch and gets its own result or error back.
+ * If a batch fails as a whole, its operations are committed one by one, so a faulty one does not fail the others.
+ */
+public class GroupCommitWriter<T, R> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    private final BlockingQueue<Submission<T, R>> queue;
+    private final Function<List<T>, List<Outcome<R>>> commit;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * @param name : name of the writer thread
+     * @param maxBatchSize : operations committed together at most
+     * @param maxWaitMicros : time the writer waits for more operations after the first one of a batch,
+     * 0 to commit only the operations already queued
+     * @param queueCapacity : operations waiting at most, the callers block beyond
+     * @param commit : commits a batch, returns the outcome of each operation in the order of the batch
+     * @throws IllegalArgumentException if a setting is out of range
+     */
+    public GroupCommitWriter(String name, int maxBatchSize, long maxWaitMicros, int queueCapacity,
+                             Function<List<T>, List<Outcome<R>>> commit) {
+        if (maxBatchSize < 1 || maxWaitMicros < 0 || queueCapacity < maxBatchSize) {
+            throw new IllegalArgumentException("Invalid group commit settings: batch size " + maxBatchSize
+                                               + ", wait " + maxWaitMicros + "us, queue capacity " + queueCapacity);
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.commit = commit;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.writer = new Thread(this::run, name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue an operation and wait for the commit of its batch
+     * @return the result of the operation
+     * @throws RuntimeException the error of the operation, or of the commit of its batch
+     * @throws IllegalStateException if the writer is closed
+     */
+    public R submit(T operation) {
+        if (closed) {
+            throw new IllegalStateException("The group commit writer is closed");
+        }
+        Submission<T, R> submission = new Submission<>(operation, new CompletableFuture<>());
+        try {
+            queue.put(submission);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queuing an operation", e);
+        }
+        if (closed) {
+            failPending();
+        }
+        try {
+            return submission.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the writer once its current batch is committed, the operations still queued fail
+     */
+    @Override
+    public void close() {
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending();
+    }
+
+    private void run() {
+        List<Submission<T, R>> batch = new ArrayList<>(maxBatchSize);
+        while (!closed) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                fail(batch);
+                return;
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Waits for a first operation, then fills the batch until it is full or the wait is over
+     */
+    private void collect(List<Submission<T, R>> batch) throws InterruptedException {
+        batch.add(queue.take());
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            Submission<T, R> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void commit(List<Submission<T, R>> batch) {
+        try {
+            List<Outcome<R>> outcomes = commit.apply(batch.stream().map(Submission::operation).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                outcomes.get(i).completeTo(batch.get(i).result());
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            LOGGER.error("Group commit of {} operations failed, committing them one by one", batch.size(), e);
+            for (Submission<T, R> submission : batch) {
+                commit(List.of(submission));
+            }
+        }
+    }
+
+    private void failPending() {
+        List<Submission<T, R>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        fail(pending);
+    }
+
+    private static <T, R> void fail(List<Submission<T, R>> submissions) {
+        IllegalStateException closedError = new IllegalStateException("The group commit writer is closed");
+        submissions.forEach(submission -> submission.result().completeExceptionally(closedError));
+    }
+
+    private record Submission<T, R>(T operation, CompletableFuture<R> result) {
+    }
+
+    /**
+     * Result of an operation of a batch : its value, or the error refusing it
+     */
+    public record Outcome<R>(R value, RuntimeException error) {
+
+        public static <R> Outcome<R> of(R value) {
+            return new Outcome<>(value, null);
+        }
+
+        public static <R> Outcome<R> failed(RuntimeException error) {
+            return new Outcome<>(null, error);
+        }
+
+        private void completeTo(CompletableFuture<R> result) {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.infrastructure.services;
+
+/**
+ * An idempotency key was sent again with a different request than the first one
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String key) {
+        super("The idempotency key " + key + " was already used for another request");
+    }
+}
@@ -0,0 +1,115 @@
+package com.bank.infrastructure.services;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.infrastructure.cache.IdempotencyCache;
+import com.bank.infrastructure.cache.StoredResponse;
+import com.bank.infrastructure.repositories.IdempotencyRepository;
+
+/**
+ * Runs a request at most once per idempotency key. The key is reserved, the request run and its response
+ * recorded in a single transaction : a retry finds the response (in the cache, then in the table) and gets
+ * it back without running the request again. A failed request (non 2xx) rolls back with its key, so it
+ * can be retried for real.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final IdempotencyCache idempotencyCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotencyService(IdempotencyRepository idempotencyRepository, IdempotencyCache idempotencyCache,
+                              PlatformTransactionManager transactionManager) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.idempotencyCache = idempotencyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run a request, unless a request with the same key already completed
+     * @param key : Idempotency-Key of the request
+     * @param fingerprint : hash of the request, compared with the one of the first request of the key
+     * @param request : runs the request, in the transaction of the key (the fingerprint of its response is not read)
+     * @return the response of the first request of the key, and whether it is a replay
+     * @throws IdempotencyKeyMismatchException if the key was used for another request
+     * @throws OptimisticLockingFailureException if a request with the same key is still running
+     */
+    public IdempotentResponse execute(String key, String fingerprint, Supplier<StoredResponse> request) {
+        Instant now = Instant.now();
+        Instant expiredBefore = now.minusMillis(idempotencyCache.getTtlMillis());
+
+        Optional<StoredResponse> cached = idempotencyCache.get(key, now.toEpochMilli());
+        if (cached.isPresent()) {
+            return replay(key, fingerprint, cached.get());
+        }
+
+        // A second attempt covers a concurrent request with the same key that rolled back meanwhile
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            Optional<StoredResponse> stored = idempotencyRepository.find(key, expiredBefore);
+            if (stored.isPresent()) {
+                idempotencyCache.put(key, stored.get(), now.toEpochMilli());
+                return replay(key, fingerprint, stored.get());
+            }
+
+            StoredResponse[] response = new StoredResponse[1];
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!idempotencyRepository.reserve(key, fingerprint, now, expiredBefore)) {
+                    status.setRollbackOnly();
+                    return;
+                }
+                StoredResponse ran = request.get();
+                response[0] = new StoredResponse(fingerprint, ran.status(), ran.body());
+                if (response[0].isSuccessful()) {
+                    idempotencyRepository.complete(key, response[0]);
+                } else {
+                    status.setRollbackOnly();
+                }
+            });
+            if (response[0] != null) {
+                if (response[0].isSuccessful()) {
+                    idempotencyCache.put(key, response[0], now.toEpochMilli());
+                }
+                return new IdempotentResponse(response[0], false);
+            }
+        }
+        throw new OptimisticLockingFailureException("A request with the idempotency key " + key + " is in progress");
+    }
+
+    /**
+     * Calling the repository to delete the keys older than the time to live
+     */
+    @Scheduled(fixedDelayString = "${bank.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpiredKeys() {
+        Instant expiredBefore = Instant.now().minusMillis(idempotencyCache.getTtlMillis());
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRepository.deleteExpired(expiredBefore));
+        LOGGER.info("{} expired idempotency keys deleted", deleted);
+    }
+
+    private static IdempotentResponse replay(String key, String fingerprint, StoredResponse stored) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+        return new IdempotentResponse(stored, true);
+    }
+
+    /**
+     * Response of an idempotent request
+     * @param response
+     * @param replayed : true if the request was not run again
+     */
+    public record IdempotentResponse(StoredResponse response, boolean replayed) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.bank.infrastructure.services;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position in the operation history : the (date, operation id) key of the last operation of a page.
+ * It is handed to clients as an opaque string, which they send back to get the next page.
+ */
+public record OperationCursor(LocalDate date, long operationId) {
+
+    /**
+     * @return the cursor as an opaque, URL-safe string
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES)
+            .putLong(date.toEpochDay())
+            .putLong(operationId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param cursor : a string returned by encode()
+     * @return the cursor
+     * @throws IllegalArgumentException if the string is not a cursor
+     */
+    public static OperationCursor decode(String cursor) {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != 2 * Long.BYTES) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new OperationCursor(LocalDate.ofEpochDay(buffer.getLong()), buffer.getLong());
+    }
+}
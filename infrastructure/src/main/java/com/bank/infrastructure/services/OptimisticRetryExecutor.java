@@ -0,0 +1,106 @@
+package com.bank.infrastructure.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Runs a read-modify-write in its own transaction, and runs it again in a new transaction when the
+ * version check of the account fails. Attempts are bounded and spaced by an exponential backoff with
+ * jitter, so writers contending on the same account spread out instead of colliding again.
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   @Value("${bank.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${bank.retry.initial-backoff-ms:5}") long initialBackoffMillis,
+                                   @Value("${bank.retry.max-backoff-ms:100}") long maxBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is needed");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Execute an action in a new transaction, retrying it on optimistic lock conflicts
+     * @param action
+     * @return the result of the first attempt that commits
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    LOGGER.error("Optimistic lock conflict, giving up after {} attempts", attempt);
+                    throw e;
+                }
+                retries.increment();
+                LOGGER.warn("Optimistic lock conflict on attempt {}, retrying", attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Counters since the start of the application
+     * @return conflicts, retries and the actions that failed after the last attempt
+     */
+    public RetryStatistics statistics() {
+        return new RetryStatistics(conflicts.sum(), retries.sum(), exhausted.sum());
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        long sleep = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    /**
+     * Snapshot of the retry counters
+     */
+    public record RetryStatistics(long conflicts, long retries, long exhausted) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.bank.infrastructure.services;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import com.bank.adapters.dto.MonthlyReviewDTO;
+import com.bank.adapters.mappers.BankMapper;
+import com.bank.domain.Account;
+import com.bank.domain.Operation;
+import com.bank.infrastructure.cache.HotAccountCache;
+import com.bank.infrastructure.entities.AccountEntity;
+import com.bank.infrastructure.entities.MonthlySummaryEntity;
+import com.bank.infrastructure.entities.OperationEntity;
+import com.bank.infrastructure.ledger.LedgerEngine;
+import com.bank.infrastructure.repositories.ReactiveInfrastructureRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * Non-blocking counterpart of AccountServiceDatabase, with the same rules and the same errors, published
+ * instead of thrown. Reads go to the reactive repository, and every committed write evicts the account
+ * from the hot account cache and drops it from the ledger engine, so the blocking API never serves a
+ * balance older than a reactive write. Refused operations are counted with the blocking ones.
+ */
+@Service
+public class ReactiveAccountService {
+
+    private final ReactiveInfrastructureRepository reactiveRepository;
+    private final BankMapper bankMapper;
+    private final HotAccountCache hotAccountCache;
+    private final Retry optimisticRetry;
+    private final Counter rejectedDeposits;
+    private final Counter rejectedWithdrawals;
+    private final LedgerEngine ledgerEngine;
+
+    public ReactiveAccountService(ReactiveInfrastructureRepository reactiveRepository, BankMapper bankMapper,
+                                  HotAccountCache hotAccountCache, MeterRegistry meterRegistry,
+                                  Optional<LedgerEngine> ledgerEngine,
+                                  @Value("${bank.retry.max-attempts:5}") int maxAttempts,
+                                  @Value("${bank.retry.initial-backoff-ms:5}") long initialBackoffMillis,
+                                  @Value("${bank.retry.max-backoff-ms:100}") long maxBackoffMillis) {
+        this.reactiveRepository = reactiveRepository;
+        this.bankMapper = bankMapper;
+        this.hotAccountCache = hotAccountCache;
+        this.rejectedDeposits = rejectedCounter(meterRegistry, "deposit");
+        this.rejectedWithdrawals = rejectedCounter(meterRegistry, "withdrawal");
+        this.ledgerEngine = ledgerEngine.orElse(null);
+        this.optimisticRetry = Retry.backoff(maxAttempts - 1, Duration.ofMillis(initialBackoffMillis))
+            .maxBackoff(Duration.ofMillis(maxBackoffMillis))
+            .jitter(1.0)
+            .filter(OptimisticLockingFailureException.class::isInstance)
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    /**
+     * @return Account number, or a NoSuchElementException if the account does not exist
+     */
+    public Mono<String> getAccountNumber(String accountNumber) {
+        return findAccount(accountNumber).map(Account::getAccountNumber);
+    }
+
+    /**
+     * @return balance, or a NoSuchElementException if the account does not exist
+     */
+    public Mono<BigDecimal> getBalance(String accountNumber) {
+        return findAccount(accountNumber).map(Account::getBalance);
+    }
+
+    /**
+     * @return authorized over withdrawal, or a NoSuchElementException if the account does not exist
+     */
+    public Mono<BigDecimal> getAuthorizedOverdraw(String accountNumber) {
+        return findAccount(accountNumber).map(Account::getAuthorizedOverdraw);
+    }
+
+    /**
+     * Update the authorized overdraw : read, checked by the domain, then written if the version did not
+     * change in between, re-read and retried with backoff otherwise
+     * @return completes, or an IllegalArgumentException if the amount is negative
+     */
+    public Mono<Void> setAuthorizedOverdraw(String accountNumber, BigDecimal authorizedOverdraw) {
+        return Mono.defer(() -> reactiveRepository.findAccount(accountNumber)
+                .switchIfEmpty(Mono.error(() -> unknownAccount(accountNumber)))
+                .flatMap(accountEntity -> {
+                    Account accountToUpdate = accountEntity.toDomain();
+                    accountToUpdate.setAuthorizedOverdraw(authorizedOverdraw);
+                    AccountEntity updated = new AccountEntity().fromDomain(accountToUpdate);
+                    updated.setVersion(accountEntity.getVersion());
+                    return reactiveRepository.save(updated);
+                }))
+            .retryWhen(optimisticRetry)
+            .then(Mono.defer(() -> written(accountNumber)));
+    }
+
+    /**
+     * Make a deposit : conditional balance update, new operation and month summary in one transaction
+     * @return the new balance, or an IllegalArgumentException if the amount is not positive
+     */
+    public Mono<BigDecimal> deposit(String accountNumber, LocalDate date, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            rejectedDeposits.increment();
+            return Mono.error(new IllegalArgumentException("Deposit amount must be positive"));
+        }
+        Operation deposit = new Operation(date, amount, "Deposit");
+        return applyOperation(accountNumber, amount, deposit, "Deposit rejected", rejectedDeposits,
+                              MonthlySummaryEntity.of(accountNumber, deposit.getDate()).addDeposit(amount));
+    }
+
+    /**
+     * Make a withdrawal : the overdraw guard and the balance update are a single conditional update, and the
+     * new operation and month summary are written in the same transaction
+     * @return the new balance, or an IllegalArgumentException if the amount is not positive or above the balance
+     */
+    public Mono<BigDecimal> withdraw(String accountNumber, LocalDate date, BigDecimal amount, String label) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            rejectedWithdrawals.increment();
+            return Mono.error(new IllegalArgumentException("Withdraw amount must be positive and inferior to balance"));
+        }
+        Operation withdrawal = new Operation(date, amount, label);
+        return applyOperation(accountNumber, amount.negate(), withdrawal, "Withdraw amount must be positive and inferior to balance",
+                              rejectedWithdrawals,
+                              MonthlySummaryEntity.of(accountNumber, withdrawal.getDate()).addWithdrawal(amount));
+    }
+
+    /**
+     * @return the operations of the current month and the balance, or a NoSuchElementException if the account does not exist
+     */
+    public Mono<MonthlyReviewDTO> getMonthlyOperations(String accountNumber) {
+        LocalDate today = LocalDate.now();
+        return findAccount(accountNumber).flatMap(account -> reactiveRepository
+            .findOperationsByMonthAndYear(accountNumber, today.getMonthValue(), today.getYear())
+            .map(opEntity -> bankMapper.toOperationDTO(opEntity.toDomain()))
+            .collectList()
+            .map(operations -> new MonthlyReviewDTO(operations, account.getBalance(), account.getAccountType())));
+    }
+
+    private Mono<BigDecimal> applyOperation(String accountNumber, BigDecimal delta, Operation operation, String rejection,
+                                            Counter rejections, MonthlySummaryEntity summary) {
+        Mono<BigDecimal> work = reactiveRepository.applyBalanceChange(accountNumber, delta)
+            .switchIfEmpty(Mono.defer(() -> rejected(accountNumber, rejection, rejections)))
+            .flatMap(balance -> reactiveRepository.saveOperation(accountNumber, new OperationEntity().fromDomain(operation))
+                .then(reactiveRepository.addToMonthlySummary(summary))
+                .thenReturn(balance));
+        return reactiveRepository.inTransaction(work)
+            .flatMap(balance -> written(accountNumber).thenReturn(balance));
+    }
+
+    /**
+     * A committed write : the account is evicted from the hot account cache, and dropped from the ledger
+     * engine, which waits for its writer and so runs on a bounded elastic thread
+     */
+    private Mono<Void> written(String accountNumber) {
+        hotAccountCache.evict(accountNumber);
+        if (ledgerEngine == null || !ledgerEngine.owns(accountNumber)) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> ledgerEngine.forget(accountNumber))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
+    private Mono<Account> findAccount(String accountNumber) {
+        return reactiveRepository.findAccount(accountNumber)
+            .switchIfEmpty(Mono.error(() -> unknownAccount(accountNumber)))
+            .map(AccountEntity::toDomain);
+    }
+
+    /**
+     * A conditional update matching no row is either an unknown account or a broken rule
+     */
+    private <T> Mono<T> rejected(String accountNumber, String message, Counter rejections) {
+        return reactiveRepository.findAccount(accountNumber)
+            .flatMap(account -> {
+                rejections.increment();
+                return Mono.<T>error(new IllegalArgumentException(message));
+            })
+            .switchIfEmpty(Mono.error(() -> unknownAccount(accountNumber)));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("bank.operations.rejected")
+            .description("Operations refused by the amount or overdraw rules")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    private static NoSuchElementException unknownAccount(String accountNumber) {
+        return new NoSuchElementException("No account with the number " + accountNumber);
+    }
+}
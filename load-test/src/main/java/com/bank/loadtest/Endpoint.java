@@ -0,0 +1,65 @@
+package com.bank.loadtest;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * Routes of app/v1/bank/account driven by the load test, named as in the mix option
+ */
+public enum Endpoint {
+
+    BALANCE("balance", false),
+    ACCOUNT_NUMBER("accountNumber", false),
+    AUTHORIZED_OVERWITHDRAWAL("authorizedOverwithdrawal", false),
+    MONTHLY_SUMMARY("monthlySummary", false),
+    HISTORY("history", false),
+    DEPOSIT("deposit", true),
+    WITHDRAW("withdraw", true);
+
+    private final String path;
+    private final boolean write;
+
+    Endpoint(String path, boolean write) {
+        this.path = path;
+        this.write = write;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isWrite() {
+        return write;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no endpoint has this name
+     */
+    public static Endpoint of(String path) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.path.equals(path)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint " + path);
+    }
+
+    /**
+     * @param accountUrl : URL of the account, ending with a slash
+     * @param amount : amount of the deposits and withdrawals
+     */
+    public HttpRequest request(String accountUrl, BigDecimal amount, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(accountUrl + path))
+            .header("X-API-VERSION", "1")
+            .timeout(timeout);
+        if (!write) {
+            return builder.GET().build();
+        }
+        String body = "{\"amount\": " + amount.toPlainString() + ", \"label\": \"load-test\"}";
+        return builder.header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.loadtest;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies (HDR histograms in microseconds, 3 significant digits) and outcomes of the requests, per endpoint.
+ * A rejected request got a 4xx answer (a withdrawal greater than the balance), an error is a 5xx answer,
+ * a timeout or a failed connection.
+ */
+public class LatencyRecorder {
+
+    public static final int FAILED = -1;
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Endpoint, EndpointStatistics> statistics = new EnumMap<>(Endpoint.class);
+
+    public LatencyRecorder(Collection<Endpoint> endpoints) {
+        endpoints.forEach(endpoint -> statistics.put(endpoint, new EndpointStatistics()));
+    }
+
+    /**
+     * @param status : HTTP status, or FAILED if no response came
+     */
+    public void record(Endpoint endpoint, long latencyNanos, int status) {
+        EndpointStatistics endpointStatistics = statistics.get(endpoint);
+        endpointStatistics.latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_LATENCY_MICROS));
+        if (status >= 200 && status < 300) {
+            endpointStatistics.successes.increment();
+        } else if (status >= 400 && status < 500) {
+            endpointStatistics.rejected.increment();
+        } else {
+            endpointStatistics.errors.increment();
+        }
+    }
+
+    /**
+     * Totals, throughput and latency percentiles of all the requests, then of each endpoint
+     * @param seconds : measured time
+     */
+    public Map<String, Object> report(double seconds) {
+        Histogram all = new Histogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        long successes = 0;
+        long rejected = 0;
+        long errors = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<Endpoint, EndpointStatistics> entry : statistics.entrySet()) {
+            EndpointStatistics endpointStatistics = entry.getValue();
+            all.add(endpointStatistics.latencies);
+            successes += endpointStatistics.successes.sum();
+            rejected += endpointStatistics.rejected.sum();
+            errors += endpointStatistics.errors.sum();
+            endpoints.put(entry.getKey().getPath(), summary(endpointStatistics.latencies, endpointStatistics.successes.sum(),
+                                                            endpointStatistics.rejected.sum(), endpointStatistics.errors.sum(), seconds));
+        }
+        Map<String, Object> report = summary(all, successes, rejected, errors, seconds);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static Map<String, Object> summary(AbstractHistogram latencies, long successes, long rejected, long errors, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", latencies.getTotalCount());
+        summary.put("successes", successes);
+        summary.put("rejected", rejected);
+        summary.put("errors", errors);
+        summary.put("throughput", latencies.getTotalCount() / seconds);
+
+        Map<String, Object> millis = new LinkedHashMap<>();
+        millis.put("mean", latencies.getMean() / 1000.0);
+        millis.put("p50", latencies.getValueAtPercentile(50) / 1000.0);
+        millis.put("p90", latencies.getValueAtPercentile(90) / 1000.0);
+        millis.put("p99", latencies.getValueAtPercentile(99) / 1000.0);
+        millis.put("p99.9", latencies.getValueAtPercentile(99.9) / 1000.0);
+        millis.put("p99.99", latencies.getValueAtPercentile(99.99) / 1000.0);
+        millis.put("max", latencies.getMaxValue() / 1000.0);
+        summary.put("latencyMillis", millis);
+        return summary;
+    }
+
+    private static final class EndpointStatistics {
+
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
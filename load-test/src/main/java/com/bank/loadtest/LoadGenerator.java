@@ -0,0 +1,130 @@
+package com.bank.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the requests of a load test, the endpoints drawn at random following the mix and the accounts
+ * drawn at random among the accounts of the options.
+ * In open loop, the requests are started at a fixed rate whatever the response times, and a latency is measured
+ * from the time the request was due : when the application falls behind, the time spent waiting behind the
+ * concurrency limit is part of the latencies instead of being hidden by a slower sender (coordinated omission).
+ * In closed loop, each client sends its next request when it gets the previous response.
+ */
+public class LoadGenerator {
+
+    private final HttpClient client;
+    private final LoadTestOptions options;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    // requests are immutable : one per endpoint and account, built once
+    private final HttpRequest[][] requests;
+
+    public LoadGenerator(HttpClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+        this.endpoints = new Endpoint[options.mix().size()];
+        this.cumulativeWeights = new int[options.mix().size()];
+        this.requests = new HttpRequest[options.mix().size()][options.accounts().size()];
+        int index = 0;
+        int total = 0;
+        for (Map.Entry<Endpoint, Integer> entry : options.mix().entrySet()) {
+            total += entry.getValue();
+            endpoints[index] = entry.getKey();
+            cumulativeWeights[index] = total;
+            for (int account = 0; account < options.accounts().size(); account++) {
+                requests[index][account] = entry.getKey().request(
+                    options.url() + "/app/v1/bank/account/" + options.accounts().get(account) + "/",
+                    options.amount(), options.timeout());
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Send requests for a duration, and wait for the responses of the requests still in flight
+     */
+    public void run(Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        if (options.isOpenLoop()) {
+            runOpenLoop(duration, recorder);
+        } else {
+            runClosedLoop(duration, recorder);
+        }
+    }
+
+    private void runOpenLoop(Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(options.concurrency());
+        double intervalNanos = 1e9 / options.rate();
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * intervalNanos);
+            if (due - start >= duration.toNanos()) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            int index = nextIndex();
+            Endpoint endpoint = endpoints[index];
+            client.sendAsync(nextRequest(index), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    recorder.record(endpoint, System.nanoTime() - due, error == null ? response.statusCode() : LatencyRecorder.FAILED);
+                    inFlight.release();
+                });
+        }
+        inFlight.acquire(options.concurrency());
+        inFlight.release(options.concurrency());
+    }
+
+    private void runClosedLoop(Duration duration, LatencyRecorder recorder) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < options.concurrency(); c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        int index = nextIndex();
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(nextRequest(index), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = LatencyRecorder.FAILED;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        recorder.record(endpoints[index], System.nanoTime() - start, status);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Index of an endpoint drawn following the weights of the mix
+     */
+    private int nextIndex() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (draw >= cumulativeWeights[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    private HttpRequest nextRequest(int index) {
+        HttpRequest[] accountRequests = requests[index];
+        return accountRequests[ThreadLocalRandom.current().nextInt(accountRequests.length)];
+    }
+}
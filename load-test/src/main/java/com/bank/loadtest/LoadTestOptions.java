@@ -0,0 +1,97 @@
+package com.bank.loadtest;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a load test, given as --name=value
+ * @param url : base URL of the application
+ * @param accounts : account numbers the requests are spread over
+ * @param mix : weight of each endpoint in the requests
+ * @param concurrency : requests in flight at most
+ * @param rate : requests started per second (open loop), 0 for a closed loop where each of the concurrent
+ * clients sends its next request when it gets the previous response
+ * @param duration : measured time
+ * @param warmup : time run before the measure, not reported
+ * @param amount : amount of the deposits and withdrawals
+ * @param timeout : time a request may take
+ * @param output : file the JSON report is written to, null for the standard output
+ */
+public record LoadTestOptions(String url, List<String> accounts, Map<Endpoint, Integer> mix, int concurrency, double rate,
+                              Duration duration, Duration warmup, BigDecimal amount, Duration timeout, Path output) {
+
+    private static final String USAGE = "Options: --url=http://localhost:8080 --accounts=1,2 "
+                                      + "--mix=balance:70,deposit:20,withdraw:10 --concurrency=64 --rate=0 "
+                                      + "--duration-s=30 --warmup-s=5 --amount=1.00 --timeout-ms=10000 --output=report.json";
+
+    /**
+     * @throws IllegalArgumentException if an option is unknown or invalid
+     */
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>(Map.of(
+            "url", "http://localhost:8080",
+            "accounts", "1",
+            "mix", "balance:70,deposit:20,withdraw:10",
+            "concurrency", "64",
+            "rate", "0",
+            "duration-s", "30",
+            "warmup-s", "5",
+            "amount", "1.00",
+            "timeout-ms", "10000"));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = separator < 0 || !arg.startsWith("--") ? null : arg.substring(2, separator);
+            if (name == null || (!values.containsKey(name) && !name.equals("output"))) {
+                throw new IllegalArgumentException("Unknown option " + arg + ". " + USAGE);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+            values.get("url").replaceAll("/+$", ""),
+            Arrays.stream(values.get("accounts").split(",")).map(String::trim).filter(account -> !account.isEmpty()).toList(),
+            parseMix(values.get("mix")),
+            Integer.parseInt(values.get("concurrency")),
+            Double.parseDouble(values.get("rate")),
+            Duration.ofSeconds(Long.parseLong(values.get("duration-s"))),
+            Duration.ofSeconds(Long.parseLong(values.get("warmup-s"))),
+            new BigDecimal(values.get("amount")),
+            Duration.ofMillis(Long.parseLong(values.get("timeout-ms"))),
+            values.containsKey("output") ? Path.of(values.get("output")) : null);
+
+        if (options.accounts.isEmpty() || options.concurrency < 1 || options.rate < 0 || options.duration.isZero()
+            || options.warmup.isNegative() || options.amount.signum() <= 0 || options.timeout.isZero()) {
+            throw new IllegalArgumentException("Invalid options " + options + ". " + USAGE);
+        }
+        return options;
+    }
+
+    public boolean isOpenLoop() {
+        return rate > 0;
+    }
+
+    /**
+     * endpoint:weight pairs, separated by commas
+     */
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split(":");
+            int weight = pair.length == 2 ? Integer.parseInt(pair[1].trim()) : -1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Invalid mix entry " + entry + ", expected endpoint:weight");
+            }
+            weights.merge(Endpoint.of(pair[0].trim()), weight, Integer::sum);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix has no weight");
+        }
+        return weights;
+    }
+}
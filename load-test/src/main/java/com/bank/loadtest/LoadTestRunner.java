@@ -0,0 +1,65 @@
+package com.bank.loadtest;
+
+import java.net.http.HttpClient;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Entry point of load-test.jar : drives the account API of a running application, then writes the
+ * throughput and HDR latency percentiles as JSON (to the standard output unless --output is given)
+ * so that runs of two commits can be compared
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(options.timeout())
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        LoadGenerator generator = new LoadGenerator(client, options);
+
+        if (!options.warmup().isZero()) {
+            System.err.println("Warming up for " + options.warmup().toSeconds() + " s");
+            generator.run(options.warmup(), new LatencyRecorder(options.mix().keySet()));
+        }
+        System.err.println("Measuring for " + options.duration().toSeconds() + " s");
+        LatencyRecorder recorder = new LatencyRecorder(options.mix().keySet());
+        long start = System.nanoTime();
+        generator.run(options.duration(), recorder);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("url", options.url());
+        report.put("mode", options.isOpenLoop() ? "open-loop" : "closed-loop");
+        report.put("rate", options.rate());
+        report.put("concurrency", options.concurrency());
+        report.put("accounts", options.accounts());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((endpoint, weight) -> mix.put(endpoint.getPath(), weight));
+        report.put("mix", mix);
+        report.put("durationSeconds", seconds);
+        report.putAll(recorder.report(seconds));
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        if (options.output() == null) {
+            System.out.println(objectMapper.writeValueAsString(report));
+        } else {
+            objectMapper.writeValue(options.output().toFile(), report);
+            System.err.println("Report written to " + options.output());
+        }
+    }
+}